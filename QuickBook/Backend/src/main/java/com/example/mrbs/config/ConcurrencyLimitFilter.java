@@ -0,0 +1,74 @@
+package com.example.mrbs.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests handled at once. With virtual threads the servlet container no
+ * longer has a thread pool that does this, and an unbounded burst would otherwise end up queued
+ * on the connection pool and the password hasher. A request that cannot start within
+ * {@code maxWait} gets a 503 with Retry-After.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final int RETRY_AFTER_SECONDS = 1;
+
+    private final Semaphore permits;
+    private final int maxRequests;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(int maxRequests, Duration maxWait, MeterRegistry registry) {
+        this.permits = new Semaphore(maxRequests);
+        this.maxRequests = maxRequests;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.rejected = Counter.builder("http.server.concurrency.rejected")
+                .description("Requests refused because the concurrency limit was reached")
+                .register(registry);
+        Gauge.builder("http.server.concurrency.active", permits, p -> this.maxRequests - p.availablePermits())
+                .description("Requests being handled")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many requests in progress, please try again shortly");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Health and metrics must stay reachable while the service is saturated
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator/");
+    }
+}
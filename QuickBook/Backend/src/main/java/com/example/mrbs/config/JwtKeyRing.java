@@ -0,0 +1,195 @@
+package com.example.mrbs.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keys for signing and verifying tokens, read from {@code security.jwt.keys.dir} so that every
+ * instance sharing the directory accepts every other instance's tokens. Each file is one key and
+ * its name, without the suffix, is the key id written to the token's {@code kid} header:
+ * <ul>
+ *     <li>{@code <kid>.hmac} - a base64 HMAC secret of at least 64 bytes, used to sign and verify</li>
+ *     <li>{@code <kid>.private.pem} - a PKCS#8 RSA or EC private key, used to sign</li>
+ *     <li>{@code <kid>.public.pem} - the matching X.509 public key, used to verify</li>
+ * </ul>
+ * Tokens are signed with {@code security.jwt.keys.active} and verified with whichever key their
+ * {@code kid} names. To rotate, add the new key everywhere, switch the active id, and remove the
+ * old key once its tokens have expired. Read nodes set {@code security.jwt.keys.verify-only} and
+ * need only the public keys. Without a directory a random key is generated, which only suits a
+ * single instance since its tokens die with it.
+ */
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private static final String HMAC_SUFFIX = ".hmac";
+    private static final String PRIVATE_SUFFIX = ".private.pem";
+    private static final String PUBLIC_SUFFIX = ".public.pem";
+    private static final String EPHEMERAL_KID = "ephemeral";
+
+    private final Path directory;
+    private final String activeKid;
+    private final boolean verifyOnly;
+
+    private volatile KeySet keys;
+
+    @Autowired
+    public JwtKeyRing(@Value("${security.jwt.keys.dir:}") String directory,
+                      @Value("${security.jwt.keys.active:}") String activeKid,
+                      @Value("${security.jwt.keys.verify-only:false}") boolean verifyOnly) {
+        this.directory = StringUtils.hasText(directory) ? Path.of(directory) : null;
+        this.activeKid = activeKid;
+        this.verifyOnly = verifyOnly;
+        if (this.directory == null) {
+            log.warn("security.jwt.keys.dir is not set, signing tokens with a random key that only this instance knows");
+            this.keys = ephemeralKeys();
+        } else {
+            this.keys = load();
+        }
+    }
+
+    /**
+     * A ring holding one random HMAC key, for tests and tools that run without key files.
+     */
+    public static JwtKeyRing ephemeral() {
+        return new JwtKeyRing("", "", false);
+    }
+
+    public SigningKey signingKey() {
+        SigningKey signingKey = keys.signing();
+        if (signingKey == null) {
+            throw new IllegalStateException("This instance is verify-only and cannot issue tokens");
+        }
+        return signingKey;
+    }
+
+    public boolean canVerify(String kid) {
+        return kid != null && keys.verification().containsKey(kid);
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        Key key = kid == null ? null : keys.verification().get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Re-reads the key directory so keys added or removed for a rotation apply without a restart.
+     * A directory that fails to load leaves the current keys in place.
+     */
+    @NodeLocal
+    @Scheduled(fixedDelayString = "${security.jwt.keys.reload-interval:60000}",
+            initialDelayString = "${security.jwt.keys.reload-interval:60000}")
+    public void reload() {
+        if (directory == null) {
+            return;
+        }
+        try {
+            keys = load();
+        } catch (RuntimeException e) {
+            log.error("Could not reload signing keys from {}, keeping the current ones", directory, e);
+        }
+    }
+
+    private KeySet load() {
+        Map<String, Key> signing = new HashMap<>();
+        Map<String, Key> verification = new HashMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(HMAC_SUFFIX)) {
+                    String kid = name.substring(0, name.length() - HMAC_SUFFIX.length());
+                    Key secret = Keys.hmacShaKeyFor(Base64.getMimeDecoder().decode(Files.readString(file).trim()));
+                    signing.put(kid, secret);
+                    verification.put(kid, secret);
+                } else if (name.endsWith(PRIVATE_SUFFIX)) {
+                    signing.put(name.substring(0, name.length() - PRIVATE_SUFFIX.length()), readPem(file, true));
+                } else if (name.endsWith(PUBLIC_SUFFIX)) {
+                    verification.put(name.substring(0, name.length() - PUBLIC_SUFFIX.length()), readPem(file, false));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read signing keys from " + directory, e);
+        }
+
+        if (verification.isEmpty()) {
+            throw new IllegalStateException("No verification keys found in " + directory);
+        }
+        if (verifyOnly) {
+            return new KeySet(null, Map.copyOf(verification));
+        }
+        Key active = signing.get(activeKid);
+        if (active == null) {
+            throw new IllegalStateException("No signing key with id '" + activeKid + "' in " + directory);
+        }
+        if (!verification.containsKey(activeKid)) {
+            throw new IllegalStateException("Signing key '" + activeKid + "' has no matching public key in " + directory);
+        }
+        return new KeySet(new SigningKey(activeKid, active), Map.copyOf(verification));
+    }
+
+    private static Key readPem(Path file, boolean privateKey) {
+        byte[] der;
+        try {
+            der = Base64.getMimeDecoder().decode(Files.readString(file).replaceAll("-----[A-Z ]+-----", ""));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read key " + file, e);
+        }
+        for (String algorithm : List.of("RSA", "EC")) {
+            try {
+                KeyFactory factory = KeyFactory.getInstance(algorithm);
+                return privateKey
+                        ? factory.generatePrivate(new PKCS8EncodedKeySpec(der))
+                        : factory.generatePublic(new X509EncodedKeySpec(der));
+            } catch (InvalidKeySpecException e) {
+                // not this algorithm, try the next one
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Could not read key " + file, e);
+            }
+        }
+        throw new IllegalStateException("Key " + file + " is neither an RSA nor an EC key");
+    }
+
+    private static KeySet ephemeralKeys() {
+        Key secret = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+        return new KeySet(new SigningKey(EPHEMERAL_KID, secret), Map.of(EPHEMERAL_KID, secret));
+    }
+
+    public record SigningKey(String kid, Key key) {
+    }
+
+    private record KeySet(SigningKey signing, Map<String, Key> verification) {
+    }
+}
@@ -1,25 +1,63 @@
 package com.example.mrbs.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenProvider {
 
-    private static final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
     private static final long JWT_EXPIRATION = 86400000; // 24 hours in milliseconds
 
+    private final JwtKeyRing keyRing;
+
+    // Parsers are immutable and thread-safe, so one is built up front instead of one per call
+    private final JwtParser parser;
+
+    // Claims of recently verified tokens, by SHA-256 of the token, until the token expires or is least recently used
+    private final Map<String, VerifiedToken> verified;
+
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public JwtTokenProvider(JwtKeyRing keyRing, MeterRegistry registry,
+                            @Value("${security.jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(keyRing).build();
+        this.verified = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > verifiedCacheSize;
+            }
+        });
+        this.cacheHits = cacheRequests(registry, "hit");
+        this.cacheMisses = cacheRequests(registry, "miss");
+    }
+
     public String generateToken(Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
 
@@ -28,16 +66,40 @@ public class JwtTokenProvider {
 
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + JWT_EXPIRATION);
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(key)
+                .signWith(signingKey.key())
                 .compact();
     }
 
+    /**
+     * Verifies the token's signature and expiry and returns its claims, which callers must not modify.
+     * A token seen before is only checked for expiry and for its key still being in the ring.
+     */
+    public Claims verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verified.get(digest);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAtMillis() > now && keyRing.canVerify(cached.kid())) {
+            cacheHits.increment();
+            return cached.claims();
+        }
+        cacheMisses.increment();
+
+        Jws<Claims> jws = parser.parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        if (claims.getExpiration() != null) {
+            verified.put(digest, new VerifiedToken(claims, jws.getHeader().getKeyId(), claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
@@ -47,25 +109,50 @@ public class JwtTokenProvider {
     }
 
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token));
+    }
+
+    // The role claim holds the authorities as written by generateToken
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
+        Object role = claims.get("role");
+        if (!(role instanceof Collection<?> values)) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(values.size());
+        for (Object value : values) {
+            Object authority = value instanceof Map<?, ?> map ? map.get("authority") : value;
+            if (authority != null) {
+                authorities.add(new SimpleGrantedAuthority(authority.toString()));
+            }
+        }
+        return authorities;
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Verifies signature and expiry on every call, bypassing the cache
+    Claims parse(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = verify(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter cacheRequests(MeterRegistry registry, String result) {
+        return Counter.builder("jwt.verified.cache.requests")
+                .tag("result", result)
+                .register(registry);
     }
 
-    private boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    private record VerifiedToken(Claims claims, String kid, long expiresAtMillis) {
     }
 }
\ No newline at end of file
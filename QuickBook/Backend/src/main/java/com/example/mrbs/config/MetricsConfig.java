@@ -0,0 +1,54 @@
+package com.example.mrbs.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Counts the SQL statements of each request and checks them against the statement budget. The
+ * application's data source is wrapped so that every statement, from Hibernate or JdbcTemplate,
+ * passes {@link QueryCountListener}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(DATA_SOURCE_BEAN)
+                            .listener(new QueryCountListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryMetricsFilter> queryMetricsFilter(
+            MeterRegistry registry,
+            @Value("${diagnostics.query-budget.statements:20}") int statementBudget,
+            @Value("${diagnostics.query-budget.time:500ms}") Duration timeBudget,
+            @Value("${diagnostics.query-budget.repeat-threshold:5}") int repeatThreshold,
+            @Value("${diagnostics.query-headers:false}") boolean headers) {
+        FilterRegistrationBean<QueryMetricsFilter> registration = new FilterRegistrationBean<>(
+                new QueryMetricsFilter(registry, statementBudget, timeBudget, repeatThreshold, headers));
+        // Outside security, so the statements of token checks are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.mrbs.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code @Scheduled} method that maintains state of this instance only and must run on
+ * every node, bypassing {@link ScheduledJobCoordinator}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NodeLocal {
+}
@@ -0,0 +1,33 @@
+package com.example.mrbs.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Routes methods annotated with {@link ReadFromPrimary} to the primary by flagging the current
+ * thread for {@link ReplicaRoutingDataSource}. Declared by {@link ReplicaRoutingConfig}, so without
+ * replicas the annotation costs nothing.
+ */
+@Aspect
+public class PrimaryReadRouting {
+
+    private final ReplicaRoutingDataSource routing;
+
+    public PrimaryReadRouting(ReplicaRoutingDataSource routing) {
+        this.routing = routing;
+    }
+
+    @Around("@annotation(com.example.mrbs.config.ReadFromPrimary) || @within(com.example.mrbs.config.ReadFromPrimary)")
+    public Object readFromPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (routing.isPrimaryRequired()) {
+            return joinPoint.proceed();
+        }
+        routing.requirePrimary(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            routing.requirePrimary(false);
+        }
+    }
+}
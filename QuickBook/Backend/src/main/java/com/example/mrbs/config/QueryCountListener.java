@@ -0,0 +1,30 @@
+package com.example.mrbs.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Counts every statement sent to the database by the current request, whether it comes from
+ * Hibernate or from a JdbcTemplate. A batch counts once, as it is one round trip.
+ */
+public class QueryCountListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.statementStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.statementFinished(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery());
+        }
+    }
+}
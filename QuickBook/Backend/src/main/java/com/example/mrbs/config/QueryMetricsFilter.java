@@ -0,0 +1,105 @@
+package com.example.mrbs.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Records how many statements each request sent to the database, and how long they took, per
+ * endpoint: {@code http.server.requests.db.statements} and {@code http.server.requests.db.time}.
+ * Requests over the statement or time budget, or running one statement {@code repeatThreshold}
+ * times or more, are logged with that statement. With {@code headers} on, every response also
+ * carries {@value #STATEMENTS_HEADER} and {@value #TIME_HEADER}.
+ */
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Db-Statements";
+    public static final String TIME_HEADER = "X-Db-Time-Ms";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryMetricsFilter.class);
+
+    private final MeterRegistry registry;
+    private final int statementBudget;
+    private final Duration timeBudget;
+    private final int repeatThreshold;
+    private final boolean headers;
+
+    public QueryMetricsFilter(MeterRegistry registry, int statementBudget, Duration timeBudget, int repeatThreshold,
+                              boolean headers) {
+        this.registry = registry;
+        this.statementBudget = statementBudget;
+        this.timeBudget = timeBudget;
+        this.repeatThreshold = repeatThreshold;
+        this.headers = headers;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.begin();
+        request.setAttribute(RequestQueryStats.ATTRIBUTE, stats);
+        // Headers must be set before the body is written, so the body is held back until the end
+        ContentCachingResponseWrapper buffered = headers ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            RequestQueryStats.end();
+            if (buffered != null) {
+                buffered.setHeader(STATEMENTS_HEADER, String.valueOf(stats.statements()));
+                buffered.setHeader(TIME_HEADER, String.format("%.3f", stats.time().toNanos() / 1_000_000.0));
+                buffered.copyBodyToResponse();
+            }
+            record(request, response, stats);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator/");
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestQueryStats stats) {
+        String uri = uri(request, response);
+        DistributionSummary.builder("http.server.requests.db.statements")
+                .description("SQL statements executed per request")
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.statements());
+        Timer.builder("http.server.requests.db.time")
+                .description("Time per request spent executing SQL statements")
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.time());
+
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        boolean overBudget = stats.statements() > statementBudget || stats.time().compareTo(timeBudget) > 0;
+        boolean nPlusOne = repeated != null && repeated.getValue() >= repeatThreshold;
+        if (overBudget || nPlusOne) {
+            log.warn("{} {} ran {} SQL statements in {} ms (budget {} statements, {} ms){}; most repeated, {} times: {}",
+                    request.getMethod(), uri, stats.statements(), stats.time().toMillis(), statementBudget,
+                    timeBudget.toMillis(), nPlusOne ? ", likely N+1" : "", repeated.getValue(), repeated.getKey());
+        }
+    }
+
+    // The route template rather than the raw path, so ids do not multiply the series
+    private static String uri(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        return response.getStatus() == HttpServletResponse.SC_NOT_FOUND ? "NOT_FOUND" : "UNKNOWN";
+    }
+}
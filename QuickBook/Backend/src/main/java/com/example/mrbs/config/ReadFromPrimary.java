@@ -0,0 +1,21 @@
+package com.example.mrbs.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Serves a read from the primary even inside a read-only transaction. For reads that feed caches
+ * or in-memory indexes right after a write, which must not pick up a replica's lagging copy.
+ * <p>
+ * Only takes effect when replicas are configured, see {@link PrimaryReadRouting}. The route is
+ * chosen when a transaction first touches the database, so a read-only transaction that has
+ * already run a statement on a replica keeps using it.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromPrimary {
+}
@@ -0,0 +1,97 @@
+package com.example.mrbs.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Sends the reads of a client that just wrote to the primary for
+ * {@code datasource.replica.read-your-writes}, so that a lagging replica cannot hide the change
+ * from it. The pin travels with the client: a write answers with {@value #HEADER} holding the
+ * epoch millis until which the client is pinned, and the client sends it back on its following
+ * requests, whichever instance serves them. Does nothing unless read replicas are configured.
+ */
+@Component
+public class ReadYourWritesPins {
+
+    public static final String HEADER = "X-Read-Your-Writes";
+
+    private static final String PINNED_UNTIL = ReadYourWritesPins.class.getName() + ".pinnedUntil";
+
+    private final long windowMillis;
+    private final boolean enabled;
+
+    @Autowired
+    public ReadYourWritesPins(@Value("${datasource.replica.read-your-writes:10s}") Duration window,
+                              @Value("${datasource.replica.urls:}") String replicaUrls) {
+        this(window, StringUtils.hasText(replicaUrls));
+    }
+
+    public ReadYourWritesPins(Duration window, boolean enabled) {
+        this.windowMillis = window.toMillis();
+        this.enabled = enabled;
+    }
+
+    /**
+     * Pins the client of the current request once the surrounding transaction commits.
+     */
+    public void pinAfterCommit() {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pin();
+                }
+            });
+        } else {
+            pin();
+        }
+    }
+
+    public boolean isCurrentRequestPinned() {
+        if (!enabled || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        long now = System.currentTimeMillis();
+        if (request.getAttribute(PINNED_UNTIL) instanceof Long until && until > now) {
+            return true;
+        }
+        String header = request.getHeader(HEADER);
+        if (header == null) {
+            return false;
+        }
+        try {
+            long until = Long.parseLong(header.trim());
+            // Further out than a window, plus as much again for clock skew between instances, is not a pin we issued
+            return until > now && until - now <= 2 * windowMillis;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void pin() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        long until = System.currentTimeMillis() + windowMillis;
+        // Later reads of this same request see the write too
+        attributes.getRequest().setAttribute(PINNED_UNTIL, until);
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null) {
+            response.setHeader(HEADER, Long.toString(until));
+        }
+    }
+}
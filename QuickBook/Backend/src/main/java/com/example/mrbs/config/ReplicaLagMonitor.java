@@ -0,0 +1,83 @@
+package com.example.mrbs.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+
+/**
+ * Measures how far each replica is behind the primary. The primary stamps
+ * {@code replication_heartbeat} with its clock, and a replica's lag is how much older its copy of
+ * the stamp is than the primary's, which needs no clock agreement between servers. Replicas more
+ * than {@code datasource.replica.max-lag} behind, or that cannot be read, take no reads until
+ * they catch up.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String BEAT_SQL = "UPDATE replication_heartbeat SET beat_at = LOCALTIMESTAMP(3) WHERE id = 1";
+    private static final String READ_SQL = "SELECT beat_at FROM replication_heartbeat WHERE id = 1";
+
+    private final ReplicaRoutingDataSource routing;
+    private final JdbcTemplate primary;
+    private final Duration maxLag;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routing, Duration maxLag, MeterRegistry registry) {
+        this.routing = routing;
+        this.primary = new JdbcTemplate(routing.primary());
+        this.maxLag = maxLag;
+        for (ReplicaRoutingDataSource.Replica replica : routing.replicas()) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lag() == null ? Double.NaN : r.lag().toMillis() / 1000.0)
+                    .description("Seconds the replica is behind the primary")
+                    .tag("replica", replica.key())
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    // One node stamps the primary; every node measures its own view of the replicas
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval:1000}")
+    public void beat() {
+        primary.update(BEAT_SQL);
+    }
+
+    @NodeLocal
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval:1000}")
+    public void check() {
+        Timestamp primaryBeat;
+        try {
+            primaryBeat = primary.queryForObject(READ_SQL, Timestamp.class);
+        } catch (DataAccessException e) {
+            log.warn("Could not read the replication heartbeat from the primary", e);
+            return;
+        }
+        for (ReplicaRoutingDataSource.Replica replica : routing.replicas()) {
+            boolean wasHealthy = replica.isHealthy();
+            try {
+                Timestamp replicaBeat = new JdbcTemplate(replica.dataSource()).queryForObject(READ_SQL, Timestamp.class);
+                Duration lag = replicaBeat == null
+                        ? null
+                        : Duration.between(replicaBeat.toInstant(), primaryBeat.toInstant());
+                boolean healthy = lag != null && lag.compareTo(maxLag) <= 0;
+                replica.update(lag, healthy);
+                if (wasHealthy && !healthy) {
+                    log.warn("Replica {} is {} behind the primary, sending its reads to the primary", replica.key(), lag);
+                } else if (!wasHealthy && healthy) {
+                    log.info("Replica {} is {} behind the primary, taking reads", replica.key(), lag);
+                }
+            } catch (DataAccessException e) {
+                replica.update(null, false);
+                if (wasHealthy) {
+                    log.warn("Could not reach replica {}, sending its reads to the primary", replica.key(), e);
+                }
+            }
+        }
+    }
+}
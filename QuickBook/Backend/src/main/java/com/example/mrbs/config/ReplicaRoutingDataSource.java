@@ -0,0 +1,142 @@
+package com.example.mrbs.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica, round robin, and everything else to the primary.
+ * Reads fall back to the primary when no replica is within the allowed lag, as judged by
+ * {@link ReplicaLagMonitor}, while the client of the current request is pinned by {@link ReadYourWritesPins},
+ * and for methods annotated with {@link ReadFromPrimary}.
+ * <p>
+ * The routing decision is made when a connection is first needed, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the read-only flag of a
+ * transaction is only known after the transaction manager has begun it.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesPins pins;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ThreadLocal<Boolean> primaryRequired = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, ReadYourWritesPins pins) {
+        this.primary = primary;
+        this.pins = pins;
+        List<Replica> replicas = new ArrayList<>();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.key(), replica.dataSource());
+        }
+        this.replicas = List.copyOf(replicas);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    public DataSource primary() {
+        return primary;
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    public boolean isPrimaryRequired() {
+        return primaryRequired.get() != null;
+    }
+
+    /**
+     * Sends every connection the current thread opens to the primary until called again with false.
+     */
+    public void requirePrimary(boolean required) {
+        if (required) {
+            primaryRequired.set(Boolean.TRUE);
+        } else {
+            primaryRequired.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || isPrimaryRequired()
+                || pins.isCurrentRequestPinned()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, size));
+            if (replica.isHealthy()) {
+                return replica.key();
+            }
+        }
+        return PRIMARY;
+    }
+
+    // The primary is a bean of its own and is closed by the container
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        }
+    }
+
+    /**
+     * One replica and what was last measured of it. A replica starts unhealthy and takes reads
+     * only once a lag check has passed.
+     */
+    public static final class Replica {
+
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile Duration lag;
+
+        Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        /**
+         * Lag at the last check, or null if the replica could not be reached.
+         */
+        public Duration lag() {
+            return lag;
+        }
+
+        void update(Duration lag, boolean healthy) {
+            this.lag = lag;
+            this.healthy = healthy;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.mrbs.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statements executed by the current request and the time spent in them, collected by
+ * {@link QueryCountListener} for requests passing through {@link QueryMetricsFilter}. Once the
+ * request is done the statistics stay available as the request attribute {@link #ATTRIBUTE}.
+ */
+public final class RequestQueryStats {
+
+    public static final String ATTRIBUTE = RequestQueryStats.class.getName();
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+    private long startedAt;
+
+    // Executions per SQL string; one string run many times is the mark of an N+1
+    private final Map<String, Integer> executions = new HashMap<>();
+
+    private RequestQueryStats() {
+    }
+
+    static RequestQueryStats begin() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Statistics of the request being handled on this thread, or null outside a request.
+     */
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public Duration time() {
+        return Duration.ofNanos(nanos);
+    }
+
+    /**
+     * The statement run most often in this request, or null if none was run.
+     */
+    public Map.Entry<String, Integer> mostRepeated() {
+        return executions.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+    }
+
+    void statementStarted() {
+        startedAt = System.nanoTime();
+    }
+
+    void statementFinished(String sql) {
+        statements++;
+        nanos += System.nanoTime() - startedAt;
+        executions.merge(sql, 1, Integer::sum);
+    }
+}
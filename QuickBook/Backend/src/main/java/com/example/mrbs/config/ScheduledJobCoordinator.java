@@ -0,0 +1,89 @@
+package com.example.mrbs.config;
+
+import com.example.mrbs.service.JobLeaseManager;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs every {@code @Scheduled} method on one node at a time. Each job is guarded by a lease
+ * from {@link JobLeaseManager}; nodes without it skip the run. Methods annotated with
+ * {@link NodeLocal} run everywhere.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "scheduling.lease.enabled", havingValue = "true", matchIfMissing = true)
+public class ScheduledJobCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledJobCoordinator.class);
+
+    private final JobLeaseManager leases;
+    private final Environment environment;
+
+    // Shortest lease handed out; jobs running less often than half of this get twice their period
+    @Value("${scheduling.lease.min-ttl:30s}")
+    private Duration minTtl;
+
+    private final Map<Method, Duration> ttls = new ConcurrentHashMap<>();
+
+    public ScheduledJobCoordinator(JobLeaseManager leases, Environment environment) {
+        this.leases = leases;
+        this.environment = environment;
+    }
+
+    @Around("@annotation(scheduled) && !@annotation(com.example.mrbs.config.NodeLocal)")
+    public Object runOnOneNode(ProceedingJoinPoint joinPoint, Scheduled scheduled) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String job = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        if (!leases.acquire(job, ttls.computeIfAbsent(method, m -> ttlFor(scheduled)))) {
+            log.trace("Skipping {}, another node holds its lease", job);
+            return null;
+        }
+        return joinPoint.proceed();
+    }
+
+    /**
+     * The lease outlives the gap between two runs, so the holder renews it on every run and
+     * the other nodes never see it expire while the holder is alive.
+     */
+    private Duration ttlFor(Scheduled scheduled) {
+        Duration period = period(scheduled.fixedDelay(), scheduled.fixedDelayString());
+        if (period == null) {
+            period = period(scheduled.fixedRate(), scheduled.fixedRateString());
+        }
+        if (period == null) {
+            return minTtl;
+        }
+        Duration twice = period.multipliedBy(2);
+        return twice.compareTo(minTtl) > 0 ? twice : minTtl;
+    }
+
+    private Duration period(long millis, String value) {
+        if (millis > 0) {
+            return Duration.ofMillis(millis);
+        }
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        String resolved = environment.resolvePlaceholders(value).trim();
+        try {
+            return Duration.ofMillis(Long.parseLong(resolved));
+        } catch (NumberFormatException e) {
+            return Duration.parse(resolved);
+        }
+    }
+}
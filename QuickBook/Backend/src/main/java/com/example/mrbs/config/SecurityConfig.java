@@ -1,6 +1,10 @@
 package com.example.mrbs.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -39,6 +43,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/users/**").authenticated()
                         .requestMatchers("/api/admin/**").hasRole("admin")
+                        // Health stays open for load balancer probes; metrics describe the whole system
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("admin")
                         .anyRequest().authenticated()
                 );
 
@@ -53,8 +60,14 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength,
+                                           @Value("${security.password.hash-threads:0}") int threads,
+                                           @Value("${security.password.hash-queue:64}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        // Half the cores by default, leaving the rest for bookings during a login burst
+        int workers = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), strength, workers, queueCapacity,
+                meterRegistry);
     }
 
     @Bean
@@ -62,9 +75,9 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:5173","http://localhost:5174")); // Your React app origin
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", ReadYourWritesPins.HEADER));
         configuration.setAllowCredentials(true); // Allow cookies or credentials
-        configuration.setExposedHeaders(List.of("Authorization")); // Expose headers if needed
+        configuration.setExposedHeaders(List.of("Authorization", "X-Next-Cursor", ReadYourWritesPins.HEADER)); // Expose headers if needed
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -0,0 +1,45 @@
+package com.example.mrbs.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Reports which threads serve requests and scheduled jobs, and installs the request concurrency
+ * limit when {@code server.concurrency-limit.max-requests} is set. Virtual threads are switched on
+ * with the {@code virtual-threads} profile.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    public ThreadingConfig(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Serving requests, async work and scheduled jobs on virtual threads");
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "server.concurrency-limit.max-requests")
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${server.concurrency-limit.max-requests}") int maxRequests,
+            @Value("${server.concurrency-limit.max-wait:1s}") Duration maxWait,
+            MeterRegistry registry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(maxRequests, maxWait, registry));
+        // Ahead of security, so rejected requests cost no token verification
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
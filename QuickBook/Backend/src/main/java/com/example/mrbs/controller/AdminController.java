@@ -1,9 +1,14 @@
 package com.example.mrbs.controller;
 
+import com.example.mrbs.dto.FeedbackFilter;
+import com.example.mrbs.dto.FeedbackResponse;
+import com.example.mrbs.dto.ReservationFilter;
+import com.example.mrbs.dto.ReservationResponse;
 import com.example.mrbs.dto.RoomDto;
-import com.example.mrbs.model.Feedback;
+import com.example.mrbs.dto.RoomResponse;
+import com.example.mrbs.dto.UserFilter;
+import com.example.mrbs.dto.UserResponse;
 import com.example.mrbs.model.MeetingRoom;
-import com.example.mrbs.model.Reservation;
 import com.example.mrbs.model.User;
 import com.example.mrbs.service.FeedbackService;
 import com.example.mrbs.service.MeetingRoomService;
@@ -37,21 +42,22 @@ public class AdminController {
 
     // User management APIs
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.findAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserResponse>> getAllUsers(UserFilter filter,
+                                                          @RequestParam(required = false) Long cursor,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        return Pagination.ok(userService.findUsers(filter, cursor, limit).map(UserResponse::fromUser));
     }
 
     @GetMapping("/users/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
         User user = userService.findById(id);
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok(UserResponse.fromUser(user));
     }
 
     @PutMapping("/users/{id}/role")
-    public ResponseEntity<User> updateUserRole(@PathVariable Long id, @RequestParam String role) {
+    public ResponseEntity<UserResponse> updateUserRole(@PathVariable Long id, @RequestParam String role) {
         User updatedUser = userService.updateUserRole(id, role);
-        return ResponseEntity.ok(updatedUser);
+        return ResponseEntity.ok(UserResponse.fromUser(updatedUser));
     }
 
     @DeleteMapping("/users/{id}")
@@ -62,21 +68,20 @@ public class AdminController {
 
     // Meeting room management APIs
     @GetMapping("/rooms")
-    public ResponseEntity<List<MeetingRoom>> getAllRooms() {
-        List<MeetingRoom> rooms = roomService.findAllRooms();
-        return ResponseEntity.ok(rooms);
+    public ResponseEntity<byte[]> getAllRooms() {
+        return CachedJson.ok(roomService.findAllRoomsJson());
     }
 
     @PostMapping("/rooms")
-    public ResponseEntity<MeetingRoom> createRoom(@Valid @RequestBody RoomDto roomDto) {
+    public ResponseEntity<RoomResponse> createRoom(@Valid @RequestBody RoomDto roomDto) {
         MeetingRoom newRoom = roomService.createRoom(roomDto);
-        return new ResponseEntity<>(newRoom, HttpStatus.CREATED);
+        return new ResponseEntity<>(RoomResponse.fromRoom(newRoom), HttpStatus.CREATED);
     }
 
     @PutMapping("/rooms/{id}")
-    public ResponseEntity<MeetingRoom> updateRoom(@PathVariable Long id, @Valid @RequestBody RoomDto roomDto) {
+    public ResponseEntity<RoomResponse> updateRoom(@PathVariable Long id, @Valid @RequestBody RoomDto roomDto) {
         MeetingRoom updatedRoom = roomService.updateRoom(id, roomDto);
-        return ResponseEntity.ok(updatedRoom);
+        return ResponseEntity.ok(RoomResponse.fromRoom(updatedRoom));
     }
 
     @DeleteMapping("/rooms/{id}")
@@ -87,26 +92,30 @@ public class AdminController {
 
     // Reservation management APIs
     @GetMapping("/reservations")
-    public ResponseEntity<List<Reservation>> getAllReservations() {
-        List<Reservation> reservations = reservationService.findAllReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationResponse>> getAllReservations(ReservationFilter filter,
+                                                                        @RequestParam(required = false) Long cursor,
+                                                                        @RequestParam(defaultValue = "50") int limit) {
+        return Pagination.ok(reservationService.findReservations(filter, cursor, limit));
     }
 
     @GetMapping("/reservations/room/{roomId}")
-    public ResponseEntity<List<Reservation>> getReservationsByRoom(@PathVariable Long roomId) {
-        List<Reservation> reservations = reservationService.findReservationsByRoom(roomId);
+    public ResponseEntity<List<ReservationResponse>> getReservationsByRoom(@PathVariable Long roomId) {
+        List<ReservationResponse> reservations = reservationService.findReservationsByRoom(roomId);
         return ResponseEntity.ok(reservations);
     }
 
     @PutMapping("/reservations/{id}/status")
-    public ResponseEntity<Reservation> updateReservationStatus(@PathVariable Long id, @RequestParam String status) {
-        Reservation updatedReservation = reservationService.updateReservationStatus(id, status);
+    public ResponseEntity<ReservationResponse> updateReservationStatus(@PathVariable Long id, @RequestParam String status,
+                                                                       @RequestParam(required = false) Long version) {
+        ReservationResponse updatedReservation = reservationService.updateReservationStatus(id, status, version);
         return ResponseEntity.ok(updatedReservation);
     }
 
     @GetMapping("/feedbacks")
-    public ResponseEntity<List<Feedback>> getAllFeedbacks() {
-        return ResponseEntity.ok(feedbackService.getAllFeedbacks());
+    public ResponseEntity<List<FeedbackResponse>> getAllFeedbacks(FeedbackFilter filter,
+                                                                  @RequestParam(required = false) Long cursor,
+                                                                  @RequestParam(defaultValue = "50") int limit) {
+        return Pagination.ok(feedbackService.findFeedbacks(filter, cursor, limit));
     }
 
     @DeleteMapping("/feedback/{id}")
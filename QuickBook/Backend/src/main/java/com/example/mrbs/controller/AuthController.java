@@ -8,6 +8,7 @@ import com.example.mrbs.exception.EmailDomainException;
 import com.example.mrbs.model.User;
 import com.example.mrbs.service.OtpService;
 import com.example.mrbs.service.UserService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -34,6 +35,7 @@ public class AuthController {
     private JwtTokenProvider tokenProvider;
 
     @PostMapping("/login")
+    @Timed(value = "auth.login", description = "Time to check credentials and issue a token")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,17 @@
+package com.example.mrbs.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Writes JSON that was serialized ahead of time, such as the cached room listings, as the response body.
+ */
+final class CachedJson {
+
+    private CachedJson() {
+    }
+
+    static ResponseEntity<byte[]> ok(byte[] json) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.mrbs.controller;
 
 import com.example.mrbs.dto.FeedbackDto;
-import com.example.mrbs.model.Feedback;
+import com.example.mrbs.dto.FeedbackResponse;
 import com.example.mrbs.service.FeedbackService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,17 +19,21 @@ public class FeedbackController {
     }
 
     @PostMapping
-    public ResponseEntity<Feedback> addFeedback(@RequestBody FeedbackDto dto, @RequestAttribute String userEmail) {
+    public ResponseEntity<FeedbackResponse> addFeedback(@RequestBody FeedbackDto dto, @RequestAttribute String userEmail) {
         return ResponseEntity.ok(feedbackService.addFeedback(dto, userEmail));
     }
 
     @GetMapping("/room/{roomId}")
-    public ResponseEntity<List<Feedback>> getByRoom(@PathVariable Long roomId) {
-        return ResponseEntity.ok(feedbackService.getFeedbackByRoom(roomId));
+    public ResponseEntity<List<FeedbackResponse>> getByRoom(@PathVariable Long roomId,
+                                                            @RequestParam(required = false) Long cursor,
+                                                            @RequestParam(defaultValue = "50") int limit) {
+        return Pagination.ok(feedbackService.getFeedbackByRoom(roomId, cursor, limit));
     }
 
     @GetMapping("/user")
-    public ResponseEntity<List<Feedback>> getByUser(@RequestAttribute String userEmail) {
-        return ResponseEntity.ok(feedbackService.getFeedbackByUserEmail(userEmail));
+    public ResponseEntity<List<FeedbackResponse>> getByUser(@RequestAttribute String userEmail,
+                                                            @RequestParam(required = false) Long cursor,
+                                                            @RequestParam(defaultValue = "50") int limit) {
+        return Pagination.ok(feedbackService.getFeedbackByUserEmail(userEmail, cursor, limit));
     }
 }
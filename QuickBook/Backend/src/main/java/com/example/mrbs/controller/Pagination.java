@@ -0,0 +1,25 @@
+package com.example.mrbs.controller;
+
+import com.example.mrbs.dto.KeysetPage;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Keeps list endpoints returning plain arrays; the cursor of the next page travels in a header.
+ */
+final class Pagination {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private Pagination() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toString());
+        }
+        return response.body(page.getItems());
+    }
+}
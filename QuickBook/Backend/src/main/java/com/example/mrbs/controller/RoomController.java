@@ -1,9 +1,14 @@
 package com.example.mrbs.controller;
 
+import com.example.mrbs.dto.OccupancyMatrix;
+import com.example.mrbs.dto.ReservationResponse;
+import com.example.mrbs.dto.RoomResponse;
+import com.example.mrbs.dto.SlotCandidate;
 import com.example.mrbs.model.MeetingRoom;
-import com.example.mrbs.model.Reservation;
 import com.example.mrbs.service.MeetingRoomService;
+import com.example.mrbs.service.OccupancyService;
 import com.example.mrbs.service.ReservationService;
+import com.example.mrbs.service.SlotFinderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -22,45 +27,70 @@ public class RoomController {
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private SlotFinderService slotFinderService;
+
+    @Autowired
+    private OccupancyService occupancyService;
+
+    // Catalog reads are answered with JSON cached by RoomCatalogCache
     @GetMapping
-    public ResponseEntity<List<MeetingRoom>> getAllAvailableRooms() {
-        List<MeetingRoom> rooms = roomService.findAllRooms();
-        return ResponseEntity.ok(rooms);
+    public ResponseEntity<byte[]> getAllAvailableRooms() {
+        return CachedJson.ok(roomService.findAllRoomsJson());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<MeetingRoom> getRoomById(@PathVariable Long id) {
-        MeetingRoom room = roomService.findById(id);
-        return ResponseEntity.ok(room);
+    public ResponseEntity<byte[]> getRoomById(@PathVariable Long id) {
+        return CachedJson.ok(roomService.findByIdJson(id));
     }
 
     @GetMapping("/location/{location}")
-    public ResponseEntity<List<MeetingRoom>> getRoomsByLocation(@PathVariable String location) {
-        List<MeetingRoom> rooms = roomService.findRoomsByLocation(location);
-        return ResponseEntity.ok(rooms);
+    public ResponseEntity<byte[]> getRoomsByLocation(@PathVariable String location) {
+        return CachedJson.ok(roomService.findRoomsByLocationJson(location));
     }
 
     @GetMapping("/capacity/{minCapacity}")
-    public ResponseEntity<List<MeetingRoom>> getRoomsByMinCapacity(@PathVariable int minCapacity) {
-        List<MeetingRoom> rooms = roomService.findRoomsByMinCapacity(minCapacity);
-        return ResponseEntity.ok(rooms);
+    public ResponseEntity<byte[]> getRoomsByMinCapacity(@PathVariable int minCapacity) {
+        return CachedJson.ok(roomService.findRoomsByMinCapacityJson(minCapacity));
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<MeetingRoom>> getAvailableRooms(
+    public ResponseEntity<List<RoomResponse>> getAvailableRooms(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
         List<MeetingRoom> rooms = roomService.findAvailableRoomsForTimeSlot(startTime, endTime);
-        return ResponseEntity.ok(rooms);
+        return ResponseEntity.ok(rooms.stream().map(RoomResponse::fromRoom).toList());
+    }
+
+    @GetMapping("/next-available")
+    public ResponseEntity<List<SlotCandidate>> getNextAvailableSlots(
+            @RequestParam int durationMinutes,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1") int minCapacity,
+            @RequestParam(required = false) String location,
+            @RequestParam(defaultValue = "5") int limit) {
+        List<SlotCandidate> slots = slotFinderService.findEarliestSlots(durationMinutes, from, to, minCapacity, location, limit);
+        return ResponseEntity.ok(slots);
+    }
+
+    @GetMapping("/occupancy")
+    public ResponseEntity<OccupancyMatrix> getOccupancy(
+            @RequestParam(required = false) String location,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "15") int slotMinutes) {
+        OccupancyMatrix matrix = occupancyService.getOccupancy(location, from, to, slotMinutes);
+        return ResponseEntity.ok(matrix);
     }
 
     @GetMapping("/{id}/schedule")
-    public ResponseEntity<List<Reservation>> getRoomSchedule(
+    public ResponseEntity<List<ReservationResponse>> getRoomSchedule(
             @PathVariable Long id,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate) {
 
-        List<Reservation> reservations;
+        List<ReservationResponse> reservations;
         if (fromDate != null && toDate != null) {
             reservations = reservationService.findReservationsByRoomAndDateRange(id, fromDate, toDate);
         } else {
@@ -71,8 +101,8 @@ public class RoomController {
     }
 
     @PostMapping("/{id}/feedback")
-    public ResponseEntity<MeetingRoom> addRoomFeedback(@PathVariable Long id, @RequestParam String feedback) {
+    public ResponseEntity<RoomResponse> addRoomFeedback(@PathVariable Long id, @RequestParam String feedback) {
         MeetingRoom room = roomService.addDescription(id, feedback);
-        return ResponseEntity.ok(room);
+        return ResponseEntity.ok(RoomResponse.fromRoom(room));
     }
 }
\ No newline at end of file
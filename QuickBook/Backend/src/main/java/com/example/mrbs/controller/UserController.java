@@ -1,36 +1,45 @@
 package com.example.mrbs.controller;
 
+import com.example.mrbs.dto.BulkReservationResponse;
 import com.example.mrbs.dto.FeedbackDto;
+import com.example.mrbs.dto.FeedbackResponse;
+import com.example.mrbs.dto.RecurringReservationRequest;
 import com.example.mrbs.dto.ReservationDto;
-import com.example.mrbs.model.Feedback;
-import com.example.mrbs.model.Reservation;
+import com.example.mrbs.dto.ReservationFilter;
+import com.example.mrbs.dto.ReservationResponse;
+import com.example.mrbs.dto.UserFilter;
+import com.example.mrbs.dto.UserResponse;
 import com.example.mrbs.model.User;
+import com.example.mrbs.service.BulkReservationService;
 import com.example.mrbs.service.FeedbackService;
 import com.example.mrbs.service.OtpService;
 import com.example.mrbs.service.ReservationService;
 import com.example.mrbs.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
-@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"}, exposedHeaders = Pagination.NEXT_CURSOR_HEADER)
 public class UserController {
 
     @Autowired
     private UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.findAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserResponse>> getAllUsers(UserFilter filter,
+                                                          @RequestParam(required = false) Long cursor,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        return Pagination.ok(userService.findUsers(filter, cursor, limit).map(UserResponse::fromUser));
     }
 
     @Autowired
@@ -39,54 +48,76 @@ public class UserController {
     @Autowired
     private FeedbackService feedbackService;
 
+    @Autowired
+    private BulkReservationService bulkReservationService;
+
     @GetMapping("/profile")
-    public ResponseEntity<User> getUserProfile() {
+    public ResponseEntity<UserResponse> getUserProfile() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
         User user = userService.findByEmail(email);
 
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok(UserResponse.fromUser(user));
     }
 
     @PutMapping("/profile")
-    public ResponseEntity<User> updateUserProfile(@Valid @RequestBody User userDetails) {
+    public ResponseEntity<UserResponse> updateUserProfile(@Valid @RequestBody User userDetails) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
         User updatedUser = userService.updateUser(email, userDetails);
 
-        return ResponseEntity.ok(updatedUser);
+        return ResponseEntity.ok(UserResponse.fromUser(updatedUser));
     }
 
     @GetMapping("/reservations")
-    public ResponseEntity<List<Reservation>> getAllReservations() {
-        List<Reservation> reservations = reservationService.findAllReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationResponse>> getAllReservations(ReservationFilter filter,
+                                                                        @RequestParam(required = false) Long cursor,
+                                                                        @RequestParam(defaultValue = "50") int limit) {
+        return Pagination.ok(reservationService.findReservations(filter, cursor, limit));
     }
 
     @GetMapping("/my_reservations")
-    public ResponseEntity<List<Reservation>> getUserReservations() {
+    public ResponseEntity<List<ReservationResponse>> getUserReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
-        List<Reservation> reservations = reservationService.findUserReservations(email);
+
+        List<ReservationResponse> reservations;
+        if (fromDate != null && toDate != null) {
+            reservations = reservationService.findUserReservationsByDateRange(email, fromDate, toDate);
+        } else {
+            reservations = reservationService.findUserReservations(email);
+        }
 
         return ResponseEntity.ok(reservations);
     }
 
     @PostMapping("/reservations")
-    public ResponseEntity<Reservation> createReservation(@Valid @RequestBody ReservationDto reservationDto) {
+    public ResponseEntity<ReservationResponse> createReservation(@Valid @RequestBody ReservationDto reservationDto) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
-        Reservation newReservation = reservationService.createReservation(email, reservationDto);
+        ReservationResponse newReservation = reservationService.createReservation(email, reservationDto);
 
         return ResponseEntity.ok(newReservation);
     }
 
+    @PostMapping("/reservations/recurring")
+    public ResponseEntity<BulkReservationResponse> createRecurringReservations(
+            @Valid @RequestBody RecurringReservationRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String email = auth.getName();
+        BulkReservationResponse response = bulkReservationService.createRecurringReservations(email, request);
+
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/reservations/{id}")
-    public ResponseEntity<Reservation> updateReservation(@PathVariable Long id,
+    public ResponseEntity<ReservationResponse> updateReservation(@PathVariable Long id,
             @Valid @RequestBody ReservationDto reservationDto) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
-        Reservation updatedReservation = reservationService.updateReservation(id, email, reservationDto);
+        ReservationResponse updatedReservation = reservationService.updateReservation(id, email, reservationDto);
 
         return ResponseEntity.ok(updatedReservation);
     }
@@ -101,25 +132,27 @@ public class UserController {
     }
 
     @PostMapping("/feedback")
-    public ResponseEntity<Feedback> addFeedback(@RequestBody FeedbackDto dto) {
+    public ResponseEntity<FeedbackResponse> addFeedback(@RequestBody FeedbackDto dto) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
 
-        Feedback feedback = feedbackService.addFeedback(dto, email);
+        FeedbackResponse feedback = feedbackService.addFeedback(dto, email);
         return ResponseEntity.ok(feedback);
     }
 
     @GetMapping("/feedback/room/{roomId}")
-    public ResponseEntity<List<Feedback>> getFeedbackByRoom(@PathVariable Long roomId) {
-        return ResponseEntity.ok(feedbackService.getFeedbackByRoom(roomId));
+    public ResponseEntity<List<FeedbackResponse>> getFeedbackByRoom(@PathVariable Long roomId,
+                                                                    @RequestParam(required = false) Long cursor,
+                                                                    @RequestParam(defaultValue = "50") int limit) {
+        return Pagination.ok(feedbackService.getFeedbackByRoom(roomId, cursor, limit));
     }
 
     @GetMapping("/feedback/my")
-    public ResponseEntity<List<Feedback>> getMyFeedback() {
+    public ResponseEntity<List<FeedbackResponse>> getMyFeedback(@RequestParam(required = false) Long cursor,
+                                                                @RequestParam(defaultValue = "50") int limit) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
 
-        List<Feedback> feedbacks = feedbackService.getFeedbackByUserEmail(email);
-        return ResponseEntity.ok(feedbacks);
+        return Pagination.ok(feedbackService.getFeedbackByUserEmail(email, cursor, limit));
     }
 }
\ No newline at end of file
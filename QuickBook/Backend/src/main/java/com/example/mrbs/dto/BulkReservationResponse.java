@@ -0,0 +1,37 @@
+package com.example.mrbs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkReservationResponse {
+
+    private int requested;
+
+    private int booked;
+
+    private int conflicts;
+
+    private List<OccurrenceResult> occurrences;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class OccurrenceResult {
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private OccurrenceStatus status;
+        private Long reservationId;
+        private String message;
+    }
+
+    public enum OccurrenceStatus {
+        booked, conflict, skipped
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.mrbs.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters of the feedback list endpoint; {@code from}/{@code to} apply to the creation time.
+ */
+@Data
+public class FeedbackFilter {
+
+    private Long roomId;
+
+    private Long userId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
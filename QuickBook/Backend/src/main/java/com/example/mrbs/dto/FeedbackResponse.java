@@ -0,0 +1,30 @@
+package com.example.mrbs.dto;
+
+import com.example.mrbs.model.Feedback;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a feedback entry; built inside the transaction that fetched its user and reservation.
+ */
+@Data
+public class FeedbackResponse {
+    private Long id;
+    private String comment;
+    private int rating;
+    private UserResponse user;
+    private ReservationResponse reservation;
+    private LocalDateTime createdAt;
+
+    public static FeedbackResponse fromFeedback(Feedback feedback) {
+        FeedbackResponse response = new FeedbackResponse();
+        response.setId(feedback.getId());
+        response.setComment(feedback.getComment());
+        response.setRating(feedback.getRating());
+        response.setUser(UserResponse.fromUser(feedback.getUser()));
+        response.setReservation(ReservationResponse.fromReservation(feedback.getReservation()));
+        response.setCreatedAt(feedback.getCreatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.mrbs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a list ordered by descending id. {@code nextCursor} is the id to pass back as
+ * {@code cursor} for the following page, or null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private List<T> items;
+    private Long nextCursor;
+
+    public static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Builds a page from a query that fetched {@code limit + 1} rows; the extra row only tells
+     * whether another page exists.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, Long> id) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(items, id.apply(items.get(limit - 1)));
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.mrbs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OccupancyMatrix {
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    private int slotMinutes;
+
+    private int slots;
+
+    private List<RoomOccupancy> rooms;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RoomOccupancy {
+        private Long roomId;
+        private String name;
+        private Integer capacity;
+        // Alternating free/busy slot counts, starting with free; they always add up to slots
+        private int[] runs;
+    }
+}
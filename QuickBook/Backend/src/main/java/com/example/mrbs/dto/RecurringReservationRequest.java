@@ -0,0 +1,55 @@
+package com.example.mrbs.dto;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecurringReservationRequest {
+
+    @NotNull(message = "Room ID is required")
+    private Long roomId;
+
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    // First occurrence; later ones keep the same time of day and duration
+    @NotNull(message = "Start time is required")
+    @Future(message = "Start time must be in the future")
+    private LocalDateTime startTime;
+
+    @NotNull(message = "End time is required")
+    @Future(message = "End time must be in the future")
+    private LocalDateTime endTime;
+
+    private String amenities;
+
+    @NotNull(message = "Frequency is required")
+    private Frequency frequency;
+
+    // Repeat every N days or weeks
+    @Min(value = 1, message = "Interval must be at least 1")
+    private int interval = 1;
+
+    // Stop after this many occurrences, or after the until date, whichever comes first
+    @Min(value = 1, message = "Occurrences must be at least 1")
+    private Integer occurrences;
+
+    private LocalDate until;
+
+    // Book nothing if any occurrence conflicts, instead of booking the free ones
+    private boolean allOrNothing;
+
+    public enum Frequency {
+        DAILY, WEEKLY
+    }
+}
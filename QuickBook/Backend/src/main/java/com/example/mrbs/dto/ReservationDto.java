@@ -29,4 +29,6 @@ public class ReservationDto {
     private LocalDateTime endTime;
 
     private String amenities;
+
+    private Long version;
 }
\ No newline at end of file
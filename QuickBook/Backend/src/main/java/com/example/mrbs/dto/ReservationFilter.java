@@ -0,0 +1,26 @@
+package com.example.mrbs.dto;
+
+import com.example.mrbs.model.Reservation.ReservationStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters of the reservation list endpoints; {@code from}/{@code to} match reservations overlapping the range.
+ */
+@Data
+public class ReservationFilter {
+
+    private ReservationStatus status;
+
+    private Long roomId;
+
+    private Long userId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
@@ -0,0 +1,26 @@
+package com.example.mrbs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationInterval {
+
+    private Long reservationId;
+
+    private Long roomId;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        // Same inclusive rule as ReservationRepository.existsOverlappingReservation
+        return !startTime.isAfter(end) && !endTime.isBefore(start);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.mrbs.dto;
+
+import com.example.mrbs.model.ArchivedReservation;
+import com.example.mrbs.model.Reservation;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a reservation; built inside the transaction that fetched its user and room.
+ */
+@Data
+public class ReservationResponse {
+    private Long id;
+    private UserResponse user;
+    private RoomResponse room;
+    private String title;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String amenities;
+    private Reservation.ReservationStatus status;
+    private LocalDateTime createdAt;
+    private Long version;
+
+    public static ReservationResponse fromReservation(Reservation reservation) {
+        ReservationResponse response = new ReservationResponse();
+        response.setId(reservation.getId());
+        response.setUser(UserResponse.fromUser(reservation.getUser()));
+        response.setRoom(RoomResponse.fromRoom(reservation.getRoom()));
+        response.setTitle(reservation.getTitle());
+        response.setStartTime(reservation.getStartTime());
+        response.setEndTime(reservation.getEndTime());
+        response.setAmenities(reservation.getAmenities());
+        response.setStatus(reservation.getStatus());
+        response.setCreatedAt(reservation.getCreatedAt());
+        response.setVersion(reservation.getVersion());
+        return response;
+    }
+
+    public static ReservationResponse fromArchived(ArchivedReservation reservation) {
+        ReservationResponse response = new ReservationResponse();
+        response.setId(reservation.getId());
+        response.setUser(UserResponse.fromUser(reservation.getUser()));
+        response.setRoom(RoomResponse.fromRoom(reservation.getRoom()));
+        response.setTitle(reservation.getTitle());
+        response.setStartTime(reservation.getStartTime());
+        response.setEndTime(reservation.getEndTime());
+        response.setAmenities(reservation.getAmenities());
+        response.setStatus(reservation.getStatus());
+        response.setCreatedAt(reservation.getCreatedAt());
+        response.setVersion(reservation.getVersion());
+        return response;
+    }
+}
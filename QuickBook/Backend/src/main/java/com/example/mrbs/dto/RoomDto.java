@@ -29,4 +29,6 @@ public class RoomDto {
     private String description;
 
     private String imageURL;
+
+    private Long version;
 }
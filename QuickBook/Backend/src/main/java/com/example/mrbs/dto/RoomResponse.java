@@ -0,0 +1,33 @@
+package com.example.mrbs.dto;
+
+import com.example.mrbs.model.MeetingRoom;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class RoomResponse {
+    private Long id;
+    private String name;
+    private MeetingRoom.RoomLocation location;
+    private Integer capacity;
+    private MeetingRoom.RoomAvailability availability;
+    private String description;
+    private String imageURL;
+    private LocalDateTime createdAt;
+    private Long version;
+
+    public static RoomResponse fromRoom(MeetingRoom room) {
+        RoomResponse response = new RoomResponse();
+        response.setId(room.getId());
+        response.setName(room.getName());
+        response.setLocation(room.getLocation());
+        response.setCapacity(room.getCapacity());
+        response.setAvailability(room.getAvailability());
+        response.setDescription(room.getDescription());
+        response.setImageURL(room.getImageURL());
+        response.setCreatedAt(room.getCreatedAt());
+        response.setVersion(room.getVersion());
+        return response;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.mrbs.dto;
+
+import com.example.mrbs.model.MeetingRoom.RoomLocation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotCandidate {
+
+    private Long roomId;
+
+    private String roomName;
+
+    private RoomLocation location;
+
+    private Integer capacity;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,15 @@
+package com.example.mrbs.dto;
+
+import com.example.mrbs.model.User.UserRole;
+import lombok.Data;
+
+/**
+ * Optional filters of the user list endpoint; {@code email} matches as a prefix.
+ */
+@Data
+public class UserFilter {
+
+    private UserRole role;
+
+    private String email;
+}
@@ -0,0 +1,29 @@
+package com.example.mrbs.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.Serial;
+
+/**
+ * The client's copy of an entity, identified by the version it sent back, is older than the
+ * stored one. Unlike a lost version check at commit this is a real conflict and is never
+ * retried; the 409 carries the current copy so the client can reapply its change.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StaleVersionException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final transient Object current;
+
+    public StaleVersionException(String resourceName, Long id, Object current) {
+        super(String.format("%s with id %d was modified by someone else, reload and try again", resourceName, id));
+        this.current = current;
+    }
+
+    public Object getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.mrbs.model;
+
+import com.example.mrbs.model.Reservation.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A reservation moved to {@code reservations_archive}; written only by the archiver, in SQL.
+ */
+@Entity
+@Immutable
+@Table(name = "reservations_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ArchivedReservation {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id", nullable = false)
+    private MeetingRoom room;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(columnDefinition = "TEXT")
+    private String amenities;
+
+    @Enumerated(EnumType.STRING)
+    @Column
+    private ReservationStatus status;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
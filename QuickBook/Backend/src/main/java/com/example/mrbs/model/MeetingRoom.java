@@ -45,6 +45,10 @@ public class MeetingRoom {
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     public enum RoomLocation {
         Hyderabad,
         @Column(name = "Pune, Wadgaonsheri")
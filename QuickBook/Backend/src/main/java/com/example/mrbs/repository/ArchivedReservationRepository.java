@@ -0,0 +1,50 @@
+package com.example.mrbs.repository;
+
+import com.example.mrbs.model.ArchivedReservation;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedReservationRepository extends JpaRepository<ArchivedReservation, Long> {
+
+    @EntityGraph(attributePaths = {"user", "room"})
+    List<ArchivedReservation> findByRoomId(Long roomId);
+
+    @EntityGraph(attributePaths = {"user", "room"})
+    List<ArchivedReservation> findByUserEmail(String email);
+
+    @EntityGraph(attributePaths = {"user", "room"})
+    @Query("""
+                SELECT a FROM ArchivedReservation a
+                WHERE a.room.id = :roomId
+                AND a.startTime >= :fromDate
+                AND a.endTime <= :toDate
+            """)
+    List<ArchivedReservation> findByRoomIdAndDateRange(
+            @Param("roomId") Long roomId,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate);
+
+    @EntityGraph(attributePaths = {"user", "room"})
+    @Query("""
+                SELECT a FROM ArchivedReservation a
+                WHERE a.user.email = :email
+                AND a.startTime >= :fromDate
+                AND a.endTime <= :toDate
+            """)
+    List<ArchivedReservation> findByUserEmailAndDateRange(
+            @Param("email") String email,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedReservation a WHERE a.user.id = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,47 @@
+package com.example.mrbs.repository;
+
+import com.example.mrbs.dto.FeedbackFilter;
+import com.example.mrbs.model.Feedback;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class FeedbackSpecifications {
+
+    private FeedbackSpecifications() {
+    }
+
+    /**
+     * Feedback matching the filter with an id below the cursor, author and reservation fetched in the same select.
+     */
+    public static Specification<Feedback> matching(FeedbackFilter filter, Long cursor) {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class) {
+                root.fetch("user");
+                Fetch<?, ?> reservation = root.fetch("reservation");
+                reservation.fetch("user");
+                reservation.fetch("room");
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            if (cursor != null) {
+                predicates.add(cb.lessThan(root.get("id"), cursor));
+            }
+            if (filter.getRoomId() != null) {
+                predicates.add(cb.equal(root.get("reservation").get("room").get("id"), filter.getRoomId()));
+            }
+            if (filter.getUserId() != null) {
+                predicates.add(cb.equal(root.get("user").get("id"), filter.getUserId()));
+            }
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), filter.getTo()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.mrbs.repository;
 
+import com.example.mrbs.config.ReadFromPrimary;
 import com.example.mrbs.model.MeetingRoom;
 import com.example.mrbs.model.MeetingRoom.RoomAvailability;
 import com.example.mrbs.model.MeetingRoom.RoomLocation;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MeetingRoomRepository extends JpaRepository<MeetingRoom, Long> {
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM MeetingRoom m WHERE m.id = :id")
+    Optional<MeetingRoom> findByIdForUpdate(@Param("id") Long id);
+
+    // Reloads the catalog cache right after room writes
+    @ReadFromPrimary
+    List<MeetingRoom> findAllByOrderByIdAsc();
+
     List<MeetingRoom> findByAvailability(RoomAvailability availability);
 
     List<MeetingRoom> findByLocation(RoomLocation location);
@@ -1,28 +1,42 @@
 package com.example.mrbs.repository;
 
+import com.example.mrbs.config.ReadFromPrimary;
+import com.example.mrbs.dto.ReservationInterval;
 import com.example.mrbs.model.Reservation;
 import com.example.mrbs.model.Reservation.ReservationStatus;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, JpaSpecificationExecutor<Reservation> {
 
+    @EntityGraph(attributePaths = {"user", "room"})
+    Optional<Reservation> findWithUserAndRoomById(Long id);
+
+    @EntityGraph(attributePaths = {"user", "room"})
     List<Reservation> findByUserId(Long userId);
 
+    @EntityGraph(attributePaths = {"user", "room"})
     List<Reservation> findByUserEmail(String email);
 
+    @EntityGraph(attributePaths = {"user", "room"})
     List<Reservation> findByRoomId(Long roomId);
 
     List<Reservation> findByStatus(ReservationStatus status);
 
+    @EntityGraph(attributePaths = {"user", "room"})
     @Query("""
                 SELECT r FROM Reservation r
                 WHERE r.room.id = :roomId
@@ -34,6 +48,18 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
             @Param("fromDate") LocalDateTime fromDate,
             @Param("toDate") LocalDateTime toDate);
 
+    @EntityGraph(attributePaths = {"user", "room"})
+    @Query("""
+                SELECT r FROM Reservation r
+                WHERE r.user.email = :email
+                AND r.startTime >= :fromDate
+                AND r.endTime <= :toDate
+            """)
+    List<Reservation> findByUserEmailAndDateRange(
+            @Param("email") String email,
+            @Param("fromDate") LocalDateTime fromDate,
+            @Param("toDate") LocalDateTime toDate);
+
     @Query("""
                 SELECT COUNT(r) > 0 FROM Reservation r
                 WHERE r.room.id = :roomId
@@ -58,9 +84,56 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    // The interval index must not miss bookings a replica has yet to receive
+    @Query("""
+                SELECT new com.example.mrbs.dto.ReservationInterval(r.id, r.room.id, r.startTime, r.endTime)
+                FROM Reservation r
+                WHERE r.status = 'confirmed'
+                AND r.endTime >= :from
+            """)
+    @ReadFromPrimary
+    List<ReservationInterval> findConfirmedIntervalsEndingAfter(@Param("from") LocalDateTime from);
+
+    @Query("""
+                SELECT new com.example.mrbs.dto.ReservationInterval(r.id, r.room.id, r.startTime, r.endTime)
+                FROM Reservation r
+                WHERE r.room.id = :roomId
+                AND r.status = 'confirmed'
+                AND r.startTime <= :toTime
+                AND r.endTime >= :fromTime
+                ORDER BY r.startTime
+            """)
+    List<ReservationInterval> findConfirmedIntervalsForRoomBetween(
+            @Param("roomId") Long roomId,
+            @Param("fromTime") LocalDateTime fromTime,
+            @Param("toTime") LocalDateTime toTime);
+
+    @Query("""
+                SELECT new com.example.mrbs.dto.ReservationInterval(r.id, r.room.id, r.startTime, r.endTime)
+                FROM Reservation r
+                WHERE r.room.id IN :roomIds
+                AND r.status = 'confirmed'
+                AND r.startTime <= :toTime
+                AND r.endTime >= :fromTime
+                ORDER BY r.room.id, r.startTime
+            """)
+    List<ReservationInterval> findConfirmedIntervalsForRoomsBetween(
+            @Param("roomIds") Collection<Long> roomIds,
+            @Param("fromTime") LocalDateTime fromTime,
+            @Param("toTime") LocalDateTime toTime);
+
+    @Query("SELECT r.id FROM Reservation r WHERE r.status = 'confirmed' AND r.endTime <= :now ORDER BY r.endTime")
+    List<Long> findDueConfirmedIds(@Param("now") LocalDateTime now, Limit limit);
+
+    // Re-checks status and end time, so ids that were cancelled or moved since they were scheduled are left alone
     @Modifying
     @Transactional
-    @Query("UPDATE Reservation r SET r.status = 'COMPLETED' WHERE r.status = 'CONFIRMED' AND r.endTime < :now")
-    void markCompletedReservations(@Param("now") LocalDateTime now);
+    @Query("""
+                UPDATE Reservation r SET r.status = 'completed', r.version = r.version + 1
+                WHERE r.id IN :ids
+                AND r.status = 'confirmed'
+                AND r.endTime <= :now
+            """)
+    int completeDue(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 
 }
\ No newline at end of file
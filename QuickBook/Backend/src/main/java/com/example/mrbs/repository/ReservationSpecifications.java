@@ -0,0 +1,47 @@
+package com.example.mrbs.repository;
+
+import com.example.mrbs.dto.ReservationFilter;
+import com.example.mrbs.model.Reservation;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ReservationSpecifications {
+
+    private ReservationSpecifications() {
+    }
+
+    /**
+     * Reservations matching the filter with an id below the cursor, user and room fetched in the same select.
+     */
+    public static Specification<Reservation> matching(ReservationFilter filter, Long cursor) {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class) {
+                root.fetch("user");
+                root.fetch("room");
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            if (cursor != null) {
+                predicates.add(cb.lessThan(root.get("id"), cursor));
+            }
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getRoomId() != null) {
+                predicates.add(cb.equal(root.get("room").get("id"), filter.getRoomId()));
+            }
+            if (filter.getUserId() != null) {
+                predicates.add(cb.equal(root.get("user").get("id"), filter.getUserId()));
+            }
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("endTime"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("startTime"), filter.getTo()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
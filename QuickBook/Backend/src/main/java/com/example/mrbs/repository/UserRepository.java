@@ -1,15 +1,25 @@
 package com.example.mrbs.repository;
 
+import com.example.mrbs.config.ReadFromPrimary;
 import com.example.mrbs.model.User;
+import com.example.mrbs.model.User.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
 
     Optional<User> findByEmail(String email);
 
     Boolean existsByEmail(String email);
+
+    // Role changes must reach token checks as soon as the status cache is evicted
+    @ReadFromPrimary
+    @Query("SELECT u.role FROM User u WHERE u.email = :email")
+    Optional<UserRole> findRoleByEmail(@Param("email") String email);
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.mrbs.repository;
+
+import com.example.mrbs.dto.UserFilter;
+import com.example.mrbs.model.User;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class UserSpecifications {
+
+    private static final char LIKE_ESCAPE = '!';
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * Users matching the filter with an id below the cursor.
+     */
+    public static Specification<User> matching(UserFilter filter, Long cursor) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (cursor != null) {
+                predicates.add(cb.lessThan(root.get("id"), cursor));
+            }
+            if (filter.getRole() != null) {
+                predicates.add(cb.equal(root.get("role"), filter.getRole()));
+            }
+            if (filter.getEmail() != null && !filter.getEmail().isBlank()) {
+                predicates.add(cb.like(root.get("email"), escapeLike(filter.getEmail().trim()) + "%", LIKE_ESCAPE));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // The search text is a literal prefix; % and _ in it must not act as wildcards
+    static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.config.ReadYourWritesPins;
+import com.example.mrbs.dto.BulkReservationResponse;
+import com.example.mrbs.dto.BulkReservationResponse.OccurrenceResult;
+import com.example.mrbs.dto.BulkReservationResponse.OccurrenceStatus;
+import com.example.mrbs.dto.RecurringReservationRequest;
+import com.example.mrbs.dto.ReservationInterval;
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.Reservation;
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.ReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Books every occurrence of a recurring reservation with one conflict query and one batched insert.
+ */
+@Service
+public class BulkReservationService {
+
+    // Every column Reservation maps, with version starting where Hibernate starts it
+    private static final String INSERT_SQL = """
+            INSERT INTO reservations (user_id, room_id, title, start_time, end_time, amenities, status, created_at, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeetingRoomService roomService;
+
+    @Autowired
+    private RoomBookingLocks bookingLocks;
+
+    @Autowired
+    private ReservationIntervalIndex intervalIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReadYourWritesPins readYourWrites;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.bulk.max-occurrences:366}")
+    private int maxOccurrences;
+
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public BulkReservationResponse createRecurringReservations(String userEmail, RecurringReservationRequest request) {
+        User user = userService.findByEmail(userEmail);
+        List<ReservationInterval> occurrences = expand(request);
+
+        bookingLocks.lockUntilCompletion(request.getRoomId());
+        MeetingRoom room = roomService.findForBooking(request.getRoomId());
+
+        // One range query covers every occurrence; the sweep itself happens in memory
+        LocalDateTime from = occurrences.get(0).getStartTime();
+        LocalDateTime to = occurrences.get(occurrences.size() - 1).getEndTime();
+        IntervalTimeline taken = new IntervalTimeline();
+        reservationRepository.findConfirmedIntervalsForRoomBetween(room.getId(), from, to).forEach(taken::put);
+
+        List<OccurrenceResult> results = new ArrayList<>();
+        List<ReservationInterval> free = new ArrayList<>();
+        long placeholderId = -1;
+        for (ReservationInterval occurrence : occurrences) {
+            if (taken.hasOverlap(occurrence.getStartTime(), occurrence.getEndTime(), null)) {
+                results.add(new OccurrenceResult(occurrence.getStartTime(), occurrence.getEndTime(),
+                        OccurrenceStatus.conflict, null, "Room is already booked for this time slot"));
+                continue;
+            }
+            // Occurrences must not collide with each other either
+            occurrence.setReservationId(placeholderId--);
+            taken.put(occurrence);
+            free.add(occurrence);
+            results.add(new OccurrenceResult(occurrence.getStartTime(), occurrence.getEndTime(),
+                    OccurrenceStatus.booked, null, null));
+        }
+
+        int conflicts = occurrences.size() - free.size();
+        meterRegistry.counter("booking.conflicts", "kind", "recurring").increment(conflicts);
+        if (request.isAllOrNothing() && conflicts > 0) {
+            results.stream()
+                    .filter(r -> r.getStatus() == OccurrenceStatus.booked)
+                    .forEach(r -> {
+                        r.setStatus(OccurrenceStatus.skipped);
+                        r.setMessage("Not booked because another occurrence conflicts");
+                    });
+            return new BulkReservationResponse(occurrences.size(), 0, conflicts, results);
+        }
+
+        List<Long> ids = insertBatch(user, room, request, free);
+        int next = 0;
+        for (OccurrenceResult result : results) {
+            if (result.getStatus() == OccurrenceStatus.booked) {
+                ReservationInterval booked = free.get(next);
+                booked.setReservationId(ids.get(next++));
+                result.setReservationId(booked.getReservationId());
+                intervalIndex.applyAfterCommit(booked, true);
+            }
+        }
+        readYourWrites.pinAfterCommit();
+        return new BulkReservationResponse(occurrences.size(), free.size(), conflicts, results);
+    }
+
+    List<ReservationInterval> expand(RecurringReservationRequest request) {
+        LocalDateTime start = request.getStartTime();
+        LocalDateTime end = request.getEndTime();
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        if (start.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Start time cannot be in the past");
+        }
+        if (request.getOccurrences() == null && request.getUntil() == null) {
+            throw new IllegalArgumentException("Either occurrences or until must be provided");
+        }
+        if (request.getOccurrences() != null && request.getOccurrences() > maxOccurrences) {
+            throw new IllegalArgumentException("At most " + maxOccurrences + " occurrences can be booked at once");
+        }
+
+        Duration length = Duration.between(start, end);
+        int limit = request.getOccurrences() != null ? request.getOccurrences() : maxOccurrences + 1;
+        List<ReservationInterval> occurrences = new ArrayList<>();
+        for (int i = 0; i < limit; i++) {
+            LocalDateTime occurrenceStart = switch (request.getFrequency()) {
+                case DAILY -> start.plusDays((long) i * request.getInterval());
+                case WEEKLY -> start.plusWeeks((long) i * request.getInterval());
+            };
+            if (request.getUntil() != null && occurrenceStart.toLocalDate().isAfter(request.getUntil())) {
+                break;
+            }
+            occurrences.add(new ReservationInterval(null, request.getRoomId(), occurrenceStart, occurrenceStart.plus(length)));
+        }
+        if (occurrences.isEmpty()) {
+            throw new IllegalArgumentException("The recurrence does not produce any occurrence");
+        }
+        if (occurrences.size() > maxOccurrences) {
+            throw new IllegalArgumentException("At most " + maxOccurrences + " occurrences can be booked at once");
+        }
+        return occurrences;
+    }
+
+    private List<Long> insertBatch(User user, MeetingRoom room, RecurringReservationRequest request,
+                                   List<ReservationInterval> occurrences) {
+        if (occurrences.isEmpty()) {
+            return List.of();
+        }
+        // Built as entities so the rows get the same defaults as a reservation saved through JPA
+        List<Reservation> rows = new ArrayList<>(occurrences.size());
+        for (ReservationInterval occurrence : occurrences) {
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setRoom(room);
+            reservation.setTitle(request.getTitle());
+            reservation.setStartTime(occurrence.getStartTime());
+            reservation.setEndTime(occurrence.getEndTime());
+            reservation.setAmenities(request.getAmenities());
+            rows.add(reservation);
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Reservation reservation = rows.get(i);
+                        ps.setLong(1, reservation.getUser().getId());
+                        ps.setLong(2, reservation.getRoom().getId());
+                        ps.setString(3, reservation.getTitle());
+                        ps.setTimestamp(4, Timestamp.valueOf(reservation.getStartTime()));
+                        ps.setTimestamp(5, Timestamp.valueOf(reservation.getEndTime()));
+                        ps.setString(6, reservation.getAmenities());
+                        ps.setString(7, reservation.getStatus().name());
+                        ps.setTimestamp(8, Timestamp.valueOf(reservation.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder);
+
+        List<Long> ids = new ArrayList<>(occurrences.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.mrbs.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends the mail queued by {@link EmailOutbox}, rendering each message from its template just before
+ * it goes out. Each batch is claimed in its own transaction, so no other node sends it, and goes out
+ * over a single SMTP connection; delivered messages are deleted. A claim that is neither delivered
+ * nor rescheduled within {@code mail.outbox.claim-timeout}, because its node died, is sent again.
+ * Messages that fail are retried with exponential backoff until {@code mail.outbox.max-attempts},
+ * then kept with status {@code failed}; messages that expire before delivery are dropped.
+ */
+@Component
+public class EmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private static final TypeReference<Map<String, Object>> PARAMS = new TypeReference<>() {
+    };
+
+    private static final String EXPIRE_SQL = "DELETE FROM email_outbox WHERE expires_at <= LOCALTIMESTAMP";
+    private static final String DUE_SQL = """
+            SELECT id, recipient, subject, template, params, attempts FROM email_outbox
+            WHERE status IN ('pending', 'sending') AND next_attempt_at <= LOCALTIMESTAMP
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """;
+    private static final String CLAIM_SQL = """
+            UPDATE email_outbox
+            SET status = 'sending', next_attempt_at = TIMESTAMPADD(SECOND, :timeout, LOCALTIMESTAMP)
+            WHERE id IN (:ids)
+            """;
+    private static final String SENT_SQL = "DELETE FROM email_outbox WHERE id IN (:ids)";
+    private static final String RETRY_SQL = """
+            UPDATE email_outbox
+            SET attempts = :attempts, status = :status, last_error = :error,
+                next_attempt_at = TIMESTAMPADD(SECOND, :delay, LOCALTIMESTAMP)
+            WHERE id = :id
+            """;
+
+    private final JavaMailSender mailSender;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MailTemplates templates;
+    private final OutboxCipher cipher;
+    private final ObjectMapper objectMapper;
+    private final String from;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+
+    // Scheduled and on-demand runs on one node must not send the same batch twice
+    private final ReentrantLock running = new ReentrantLock();
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter expired;
+
+    public EmailDispatcher(JavaMailSender mailSender, NamedParameterJdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager, MailTemplates templates,
+                           OutboxCipher cipher, ObjectMapper objectMapper, MeterRegistry registry,
+                           @Value("${spring.mail.username}") String from,
+                           @Value("${mail.outbox.batch-size:50}") int batchSize,
+                           @Value("${mail.outbox.max-batches-per-run:10}") int maxBatchesPerRun,
+                           @Value("${mail.outbox.max-attempts:5}") int maxAttempts,
+                           @Value("${mail.outbox.backoff:5s}") Duration backoff,
+                           @Value("${mail.outbox.max-backoff:10m}") Duration maxBackoff,
+                           @Value("${mail.outbox.claim-timeout:10m}") Duration claimTimeout) {
+        this.mailSender = mailSender;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.templates = templates;
+        this.cipher = cipher;
+        this.objectMapper = objectMapper;
+        this.from = from;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+
+        sent = messages(registry, "sent");
+        retried = messages(registry, "retried");
+        failed = messages(registry, "failed");
+        expired = messages(registry, "expired");
+    }
+
+    /**
+     * Sends due messages, batch by batch, and returns how many were delivered.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:1000}", initialDelayString = "${mail.outbox.poll-interval:1000}")
+    public int dispatch() {
+        if (!running.tryLock()) {
+            return 0;
+        }
+        try {
+            expired.increment(jdbcTemplate.getJdbcTemplate().update(EXPIRE_SQL));
+            int delivered = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<OutboxMessage> due = claimDue();
+                if (due.isEmpty()) {
+                    break;
+                }
+                delivered += send(due);
+                if (due.size() < batchSize) {
+                    break;
+                }
+            }
+            return delivered;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /**
+     * Locks the next due rows, skipping those another node is claiming, and marks them as being sent.
+     */
+    private List<OutboxMessage> claimDue() {
+        return transactionTemplate.execute(status -> {
+            List<OutboxMessage> due = jdbcTemplate.query(DUE_SQL, new MapSqlParameterSource("limit", batchSize),
+                    (rs, rowNum) -> new OutboxMessage(rs.getLong("id"), rs.getString("recipient"),
+                            rs.getString("subject"), rs.getString("template"), rs.getString("params"),
+                            rs.getInt("attempts")));
+            if (!due.isEmpty()) {
+                jdbcTemplate.update(CLAIM_SQL, new MapSqlParameterSource()
+                        .addValue("ids", due.stream().map(OutboxMessage::id).toList())
+                        .addValue("timeout", claimTimeout.toSeconds()));
+            }
+            return due;
+        });
+    }
+
+    private int send(List<OutboxMessage> batch) {
+        Map<MimeMessage, OutboxMessage> byMessage = new IdentityHashMap<>();
+        List<Long> delivered = new ArrayList<>();
+        for (OutboxMessage message : batch) {
+            try {
+                byMessage.put(toMime(message), message);
+            } catch (MessagingException | GeneralSecurityException | IOException
+                     | IllegalArgumentException | UncheckedIOException e) {
+                // A row this instance cannot decrypt or render fails like an undeliverable one
+                reschedule(message, e);
+            }
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        MailException aborted = null;
+        try {
+            mailSender.send(byMessage.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            // Empty when everything was sent and only closing the connection failed
+            failures = e.getFailedMessages();
+        } catch (MailException e) {
+            // E.g. authentication failing on a reconnect halfway through the batch
+            aborted = e;
+        }
+
+        for (Map.Entry<MimeMessage, OutboxMessage> entry : byMessage.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null && aborted != null && !reachedTransport(entry.getKey())) {
+                failure = aborted;
+            }
+            if (failure == null) {
+                delivered.add(entry.getValue().id());
+            } else {
+                reschedule(entry.getValue(), failure);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            jdbcTemplate.update(SENT_SQL, new MapSqlParameterSource("ids", delivered));
+            sent.increment(delivered.size());
+        }
+        return delivered.size();
+    }
+
+    private MimeMessage toMime(OutboxMessage message) throws MessagingException, GeneralSecurityException, IOException {
+        Map<String, Object> params = objectMapper.readValue(cipher.decrypt(message.params()), PARAMS);
+        String html = templates.render(message.template(), params);
+        MimeMessage mime = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mime, true, "UTF-8");
+        helper.setFrom(from);
+        helper.setTo(message.recipient());
+        helper.setSubject(message.subject());
+        helper.setText(html, true);
+        return mime;
+    }
+
+    /**
+     * JavaMailSenderImpl stamps the sent date just before handing a message to the transport, and
+     * reports messages the transport rejected as failed, so a stamped message that is not among the
+     * failures went out.
+     */
+    private static boolean reachedTransport(MimeMessage message) {
+        try {
+            return message.getSentDate() != null;
+        } catch (MessagingException e) {
+            return false;
+        }
+    }
+
+    private void reschedule(OutboxMessage message, Exception cause) {
+        int attempts = message.attempts() + 1;
+        boolean giveUp = attempts >= maxAttempts;
+        long delay = Math.min(backoff.toSeconds() << Math.min(attempts - 1, 20), maxBackoff.toSeconds());
+        String error = String.valueOf(cause.getMessage());
+        jdbcTemplate.update(RETRY_SQL, new MapSqlParameterSource()
+                .addValue("id", message.id())
+                .addValue("attempts", attempts)
+                .addValue("status", giveUp ? "failed" : "pending")
+                .addValue("error", error.length() > 512 ? error.substring(0, 512) : error)
+                .addValue("delay", delay));
+        if (giveUp) {
+            failed.increment();
+            log.error("Giving up on mail {} to {} after {} attempts: {}", message.id(), message.recipient(), attempts, error);
+        } else {
+            retried.increment();
+            log.warn("Could not send mail {} to {}, retrying in {}s: {}", message.id(), message.recipient(), delay, error);
+        }
+    }
+
+    private static Counter messages(MeterRegistry registry, String result) {
+        return Counter.builder("mail.outbox.messages")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record OutboxMessage(long id, String recipient, String subject, String template, String params, int attempts) {
+    }
+}
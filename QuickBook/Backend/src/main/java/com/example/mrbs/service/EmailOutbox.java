@@ -0,0 +1,47 @@
+package com.example.mrbs.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Queues mail in {@code email_outbox} for {@link EmailDispatcher}, so requests never wait on the
+ * mail server. A message joins the caller's transaction when there is one. Rows hold the template
+ * name and its encrypted parameters; the body is only rendered when the message is sent.
+ */
+@Component
+public class EmailOutbox {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO email_outbox (recipient, subject, template, params, next_attempt_at, expires_at, created_at)
+            VALUES (?, ?, ?, ?, LOCALTIMESTAMP, TIMESTAMPADD(SECOND, ?, LOCALTIMESTAMP), LOCALTIMESTAMP)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxCipher cipher;
+
+    public EmailOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, OutboxCipher cipher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.cipher = cipher;
+    }
+
+    /**
+     * Queues a message rendered from {@code mail/<template>.html} that is dropped unsent if it
+     * cannot be delivered within {@code validFor}.
+     */
+    public void enqueue(String recipient, String subject, String template, Map<String, ?> params, Duration validFor) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(params);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Mail parameters for " + template + " cannot be serialized", e);
+        }
+        jdbcTemplate.update(INSERT_SQL, recipient, subject, template, cipher.encrypt(json), validFor.toSeconds());
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.mrbs.service;
 
+import com.example.mrbs.config.ReadYourWritesPins;
 import com.example.mrbs.dto.FeedbackDto;
+import com.example.mrbs.dto.FeedbackFilter;
+import com.example.mrbs.dto.FeedbackResponse;
+import com.example.mrbs.dto.KeysetPage;
 import com.example.mrbs.model.Feedback;
 import com.example.mrbs.model.Reservation;
 import com.example.mrbs.repository.FeedbackRepository;
+import com.example.mrbs.repository.FeedbackSpecifications;
 import com.example.mrbs.repository.ReservationRepository;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,15 +21,22 @@ public class FeedbackService {
 
     private final FeedbackRepository feedbackRepository;
     private final ReservationRepository reservationRepository;
+    private final UserService userService;
+    private final ReadYourWritesPins readYourWrites;
 
     public FeedbackService(FeedbackRepository feedbackRepository,
-                           ReservationRepository reservationRepository) {
+                           ReservationRepository reservationRepository,
+                           UserService userService,
+                           ReadYourWritesPins readYourWrites) {
         this.feedbackRepository = feedbackRepository;
         this.reservationRepository = reservationRepository;
+        this.userService = userService;
+        this.readYourWrites = readYourWrites;
     }
 
-    public Feedback addFeedback(FeedbackDto dto, String userEmail) {
-        Reservation reservation = reservationRepository.findById(dto.getReservationId())
+    @Transactional
+    public FeedbackResponse addFeedback(FeedbackDto dto, String userEmail) {
+        Reservation reservation = reservationRepository.findWithUserAndRoomById(dto.getReservationId())
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
 
         if (!reservation.getUser().getEmail().equals(userEmail)) {
@@ -35,24 +49,35 @@ public class FeedbackService {
         feedback.setReservation(reservation);
         feedback.setUser(reservation.getUser()); // Set the user from the reservation
 
-        return feedbackRepository.save(feedback);
+        readYourWrites.pinAfterCommit();
+        return FeedbackResponse.fromFeedback(feedbackRepository.save(feedback));
     }
 
-    public List<Feedback> getFeedbackByRoom(Long roomId) {
-        return feedbackRepository.findByReservation_Room_Id(roomId);
+    @Transactional(readOnly = true)
+    public KeysetPage<FeedbackResponse> getFeedbackByRoom(Long roomId, Long cursor, int limit) {
+        FeedbackFilter filter = new FeedbackFilter();
+        filter.setRoomId(roomId);
+        return findFeedbacks(filter, cursor, limit);
     }
 
-    public List<Feedback> getFeedbackByUserEmail(String email) {
-        return feedbackRepository.findAll().stream()
-                .filter(fb -> fb.getReservation().getUser().getEmail().equals(email))
-                .toList();
+    @Transactional(readOnly = true)
+    public KeysetPage<FeedbackResponse> getFeedbackByUserEmail(String email, Long cursor, int limit) {
+        // Resolve the author once so the page is read through the feedbacks.user_id foreign key
+        FeedbackFilter filter = new FeedbackFilter();
+        filter.setUserId(userService.findByEmail(email).getId());
+        return findFeedbacks(filter, cursor, limit);
     }
 
-    public List<Feedback> getAllFeedbacks() {
-        return feedbackRepository.findAll();
+    @Transactional(readOnly = true)
+    public KeysetPage<FeedbackResponse> findFeedbacks(FeedbackFilter filter, Long cursor, int limit) {
+        int size = KeysetPage.clamp(limit);
+        List<Feedback> rows = feedbackRepository.findBy(FeedbackSpecifications.matching(filter, cursor),
+                q -> q.sortBy(Sort.by(Sort.Direction.DESC, "id")).limit(size + 1).all());
+        return KeysetPage.of(rows, size, Feedback::getId).map(FeedbackResponse::fromFeedback);
     }
 
     public void deleteFeedback(Long id) {
         feedbackRepository.deleteById(id);
+        readYourWrites.pinAfterCommit();
     }
 }
@@ -0,0 +1,77 @@
+package com.example.mrbs.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timer wheel: keys hash by deadline into {@code buckets} slots of {@code tickMillis}
+ * each. Advancing visits only the buckets of elapsed ticks; an entry more than one rotation
+ * away stays in its bucket until a visit finds it due.
+ */
+final class HashedTimerWheel<K> {
+
+    private final long tickMillis;
+    private final List<Map<K, Long>> buckets;
+    // key -> bucket holding it, so rescheduling and cancelling are O(1)
+    private final Map<K, Integer> bucketOf = new HashMap<>();
+    private long lastTick;
+
+    HashedTimerWheel(long tickMillis, int buckets, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            this.buckets.add(new HashMap<>());
+        }
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedules {@code key} for {@code deadlineMillis}, replacing any earlier deadline.
+     * Deadlines already passed come out of the next {@link #advance}.
+     */
+    synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.max(deadlineMillis / tickMillis, lastTick);
+        int bucket = (int) (tick % buckets.size());
+        buckets.get(bucket).put(key, deadlineMillis);
+        bucketOf.put(key, bucket);
+    }
+
+    synchronized void cancel(K key) {
+        Integer bucket = bucketOf.remove(key);
+        if (bucket != null) {
+            buckets.get(bucket).remove(key);
+        }
+    }
+
+    /**
+     * Removes and returns every key whose deadline is at or before {@code nowMillis}.
+     */
+    synchronized List<K> advance(long nowMillis) {
+        long currentTick = nowMillis / tickMillis;
+        List<K> due = new ArrayList<>();
+        // The last visited tick is visited again, as it may hold deadlines later in that tick;
+        // after a long pause one pass over the whole wheel is enough
+        long first = Math.max(lastTick, currentTick - buckets.size() + 1);
+        for (long tick = first; tick <= currentTick; tick++) {
+            Iterator<Map.Entry<K, Long>> entries = buckets.get((int) (tick % buckets.size())).entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<K, Long> entry = entries.next();
+                if (entry.getValue() <= nowMillis) {
+                    entries.remove();
+                    bucketOf.remove(entry.getKey());
+                    due.add(entry.getKey());
+                }
+            }
+        }
+        lastTick = Math.max(lastTick, currentTick);
+        return due;
+    }
+
+    synchronized int size() {
+        return bucketOf.size();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.config.NodeLocal;
+import com.example.mrbs.exception.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps codes in this instance's memory, so a code can only be verified on the instance that sent it.
+ * Holds at most {@code security.otp.max-entries} codes; new requests are refused while it is full.
+ */
+@Component
+@ConditionalOnProperty(name = "security.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public InMemoryOtpStore(@Value("${security.otp.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public void save(String email, String code, Duration ttl) {
+        if (entries.size() >= maxEntries && !entries.containsKey(email) && (sweep() == 0 || entries.size() >= maxEntries)) {
+            throw new ServiceBusyException("Too many pending verification codes, please try again shortly", 60);
+        }
+        entries.put(email, new Entry(code, System.nanoTime() + ttl.toNanos(), 0));
+    }
+
+    @Override
+    public boolean consume(String email, String code, int maxAttempts) {
+        boolean[] matched = new boolean[1];
+        entries.computeIfPresent(email, (key, entry) -> {
+            if (entry.isExpired(System.nanoTime()) || entry.attempts() >= maxAttempts) {
+                return null;
+            }
+            if (MessageDigest.isEqual(entry.code().getBytes(StandardCharsets.UTF_8), code.getBytes(StandardCharsets.UTF_8))) {
+                matched[0] = true;
+                return null;
+            }
+            int attempts = entry.attempts() + 1;
+            return attempts >= maxAttempts ? null : new Entry(entry.code(), entry.expiresAtNanos(), attempts);
+        });
+        return matched[0];
+    }
+
+    @Override
+    @NodeLocal
+    @Scheduled(fixedDelayString = "${security.otp.sweep-interval:60000}")
+    public int sweep() {
+        long now = System.nanoTime();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        return Math.max(0, before - entries.size());
+    }
+
+    private record Entry(String code, long expiresAtNanos, int attempts) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.ReservationInterval;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Reservation intervals of one room, sorted by start time. Lookups only scan intervals that
+ * start within the longest stored duration before the queried window.
+ */
+final class IntervalTimeline {
+    private final TreeMap<LocalDateTime, List<ReservationInterval>> byStart = new TreeMap<>();
+    private final Map<Long, ReservationInterval> byId = new HashMap<>();
+    // Bounds how far back from a query start an overlapping interval can begin
+    private Duration longest = Duration.ZERO;
+
+    synchronized void put(ReservationInterval interval) {
+        remove(interval.getReservationId());
+        byStart.computeIfAbsent(interval.getStartTime(), k -> new ArrayList<>(1)).add(interval);
+        byId.put(interval.getReservationId(), interval);
+        Duration length = Duration.between(interval.getStartTime(), interval.getEndTime());
+        if (length.compareTo(longest) > 0) {
+            longest = length;
+        }
+    }
+
+    synchronized ReservationInterval get(Long reservationId) {
+        return byId.get(reservationId);
+    }
+
+    synchronized List<ReservationInterval> all() {
+        return new ArrayList<>(byId.values());
+    }
+
+    synchronized boolean remove(Long reservationId) {
+        ReservationInterval existing = byId.remove(reservationId);
+        if (existing == null) {
+            return false;
+        }
+        List<ReservationInterval> group = byStart.get(existing.getStartTime());
+        group.removeIf(i -> i.getReservationId().equals(reservationId));
+        if (group.isEmpty()) {
+            byStart.remove(existing.getStartTime());
+        }
+        return true;
+    }
+
+    synchronized List<ReservationInterval> intervalsBetween(LocalDateTime from, LocalDateTime to) {
+        List<ReservationInterval> result = new ArrayList<>();
+        if (to.isBefore(from)) {
+            return result;
+        }
+        for (List<ReservationInterval> group : byStart.subMap(from.minus(longest), true, to, true).values()) {
+            for (ReservationInterval interval : group) {
+                if (interval.overlaps(from, to)) {
+                    result.add(interval);
+                }
+            }
+        }
+        return result;
+    }
+
+    synchronized boolean hasOverlap(LocalDateTime start, LocalDateTime end, Long excludeReservationId) {
+        if (end.isBefore(start)) {
+            return false;
+        }
+        for (List<ReservationInterval> group : byStart.subMap(start.minus(longest), true, end, true).values()) {
+            for (ReservationInterval interval : group) {
+                if (!Objects.equals(interval.getReservationId(), excludeReservationId)
+                        && interval.overlaps(start, end)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.mrbs.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Keeps codes in {@code otp_codes}, so any instance can verify a code sent by another. Codes are
+ * stored as an HMAC keyed with {@code security.otp.hmac-key}, which every instance shares (see
+ * {@link SharedKeys}), so a leaked table cannot be brute-forced offline; they are timed by the database clock. Attempts are counted with a conditional update,
+ * so concurrent guesses on different instances share one budget and a code is used at most once.
+ */
+@Component
+@ConditionalOnProperty(name = "security.otp.store", havingValue = "jdbc")
+public class JdbcOtpStore implements OtpStore {
+
+    private static final String UPDATE_SQL = """
+            UPDATE otp_codes SET code_hash = ?, expires_at = TIMESTAMPADD(SECOND, ?, LOCALTIMESTAMP), attempts = 0
+            WHERE email = ?
+            """;
+    private static final String INSERT_SQL = """
+            INSERT INTO otp_codes (email, code_hash, expires_at, attempts)
+            VALUES (?, ?, TIMESTAMPADD(SECOND, ?, LOCALTIMESTAMP), 0)
+            """;
+    private static final String COUNT_ATTEMPT_SQL = """
+            UPDATE otp_codes SET attempts = attempts + 1
+            WHERE email = ? AND expires_at > LOCALTIMESTAMP AND attempts < ?
+            """;
+    private static final String USE_SQL = "DELETE FROM otp_codes WHERE email = ? AND code_hash = ?";
+    private static final String SWEEP_SQL = "DELETE FROM otp_codes WHERE expires_at <= LOCALTIMESTAMP";
+
+    private static final String HMAC = "HmacSHA256";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecretKeySpec hmacKey;
+
+    public JdbcOtpStore(JdbcTemplate jdbcTemplate, @Value("${security.otp.hmac-key:}") String base64Key,
+                        Environment environment) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.hmacKey = new SecretKeySpec(SharedKeys.decode("security.otp.hmac-key", base64Key, 32, environment), HMAC);
+    }
+
+    @Override
+    public void save(String email, String code, Duration ttl) {
+        String hash = hash(email, code);
+        long seconds = ttl.toSeconds();
+        if (jdbcTemplate.update(UPDATE_SQL, hash, seconds, email) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, email, hash, seconds);
+        } catch (DuplicateKeyException e) {
+            // Another request for the same email inserted first; the newest code wins
+            jdbcTemplate.update(UPDATE_SQL, hash, seconds, email);
+        }
+    }
+
+    @Override
+    public boolean consume(String email, String code, int maxAttempts) {
+        if (jdbcTemplate.update(COUNT_ATTEMPT_SQL, email, maxAttempts) == 0) {
+            return false;
+        }
+        return jdbcTemplate.update(USE_SQL, email, hash(email, code)) == 1;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${security.otp.sweep-interval:60000}")
+    public int sweep() {
+        return jdbcTemplate.update(SWEEP_SQL);
+    }
+
+    private String hash(String email, String code) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(hmacKey);
+            return HexFormat.of().formatHex(mac.doFinal((email + "\n" + code).getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.mrbs.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-bounded leases on named jobs, stored in {@code scheduled_job_leases} and timed by the
+ * database clock so nodes never compare their own clocks. A holder renews once half the lease
+ * has passed; if it stops renewing, another node takes over when the lease runs out.
+ */
+@Component
+public class JobLeaseManager {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLeaseManager.class);
+
+    private static final String RENEW_OR_TAKE_OVER_SQL = """
+            UPDATE scheduled_job_leases SET owner = ?, lease_until = TIMESTAMPADD(SECOND, ?, LOCALTIMESTAMP)
+            WHERE job_name = ? AND (owner = ? OR lease_until < LOCALTIMESTAMP)
+            """;
+    private static final String CREATE_SQL = """
+            INSERT INTO scheduled_job_leases (job_name, owner, lease_until)
+            VALUES (?, ?, TIMESTAMPADD(SECOND, ?, LOCALTIMESTAMP))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner;
+
+    // Local answers until these System.nanoTime() instants, so most runs never touch the table
+    private final Map<String, Long> heldUntil = new ConcurrentHashMap<>();
+    private final Map<String, Long> retryAt = new ConcurrentHashMap<>();
+
+    @Autowired
+    public JobLeaseManager(JdbcTemplate jdbcTemplate, @Value("${scheduling.lease.node-id:}") String nodeId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.owner = StringUtils.hasText(nodeId) ? nodeId : defaultNodeId();
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * True when this node holds the lease on {@code job}, taking or renewing it for {@code ttl} if needed.
+     */
+    public boolean acquire(String job, Duration ttl) {
+        long now = System.nanoTime();
+        long half = ttl.toNanos() / 2;
+        Long held = heldUntil.get(job);
+        if (held != null && now - held < 0) {
+            return true;
+        }
+        Long retry = retryAt.get(job);
+        if (retry != null && now - retry < 0) {
+            return false;
+        }
+
+        boolean acquired;
+        try {
+            acquired = tryAcquire(job, ttl);
+        } catch (DataAccessException e) {
+            log.warn("Could not reach the lease table for job {}, skipping this run", job, e);
+            acquired = false;
+        }
+        if (acquired) {
+            heldUntil.put(job, now + half);
+            retryAt.remove(job);
+        } else {
+            heldUntil.remove(job);
+            retryAt.put(job, now + half);
+        }
+        return acquired;
+    }
+
+    boolean tryAcquire(String job, Duration ttl) {
+        long seconds = Math.max(1, ttl.toSeconds());
+        if (jdbcTemplate.update(RENEW_OR_TAKE_OVER_SQL, owner, seconds, job, owner) == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(CREATE_SQL, job, owner, seconds) == 1;
+        } catch (DuplicateKeyException e) {
+            // Another node holds it
+            return false;
+        }
+    }
+
+    /**
+     * Gives up every lease of this node so the others take over without waiting for expiry.
+     */
+    @PreDestroy
+    public void releaseAll() {
+        heldUntil.clear();
+        retryAt.clear();
+        try {
+            jdbcTemplate.update("DELETE FROM scheduled_job_leases WHERE owner = ?", owner);
+        } catch (DataAccessException e) {
+            log.debug("Could not release job leases of {}", owner, e);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
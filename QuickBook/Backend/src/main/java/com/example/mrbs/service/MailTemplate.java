@@ -0,0 +1,72 @@
+package com.example.mrbs.service;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An HTML mail template read once and split at its {@code {{name}}} placeholders, so rendering is
+ * a single pass of appends. Values are HTML-escaped.
+ */
+public final class MailTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(\\w+)}}");
+
+    // Literal text at even indexes, placeholder names at odd ones
+    private final String[] segments;
+    private final int literalLength;
+
+    private MailTemplate(String[] segments) {
+        this.segments = segments;
+        int length = 0;
+        for (int i = 0; i < segments.length; i += 2) {
+            length += segments[i].length();
+        }
+        this.literalLength = length;
+    }
+
+    public static MailTemplate classpath(String location) {
+        try {
+            return compile(new ClassPathResource(location).getContentAsString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read mail template " + location, e);
+        }
+    }
+
+    public static MailTemplate compile(String source) {
+        List<String> segments = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        int last = 0;
+        while (matcher.find()) {
+            segments.add(source.substring(last, matcher.start()));
+            segments.add(matcher.group(1));
+            last = matcher.end();
+        }
+        segments.add(source.substring(last));
+        return new MailTemplate(segments.toArray(String[]::new));
+    }
+
+    public String render(Map<String, ?> values) {
+        StringBuilder html = new StringBuilder(literalLength + 64);
+        for (int i = 0; i < segments.length; i++) {
+            if (i % 2 == 0) {
+                html.append(segments[i]);
+                continue;
+            }
+            Object value = values.get(segments[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("No value for mail template placeholder " + segments[i]);
+            }
+            html.append(HtmlUtils.htmlEscape(value.toString()));
+        }
+        return html.toString();
+    }
+}
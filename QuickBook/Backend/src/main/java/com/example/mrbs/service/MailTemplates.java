@@ -0,0 +1,25 @@
+package com.example.mrbs.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * The templates under {@code mail/} on the classpath, by name, each compiled the first time it is used.
+ */
+@Component
+public class MailTemplates {
+
+    private static final Pattern NAME = Pattern.compile("\\w+");
+
+    private final Map<String, MailTemplate> templates = new ConcurrentHashMap<>();
+
+    public String render(String name, Map<String, ?> values) {
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid mail template name " + name);
+        }
+        return templates.computeIfAbsent(name, n -> MailTemplate.classpath("mail/" + n + ".html")).render(values);
+    }
+}
@@ -1,17 +1,24 @@
 package com.example.mrbs.service;
 
+import com.example.mrbs.config.ReadYourWritesPins;
 import com.example.mrbs.dto.RoomDto;
+import com.example.mrbs.dto.RoomResponse;
 import com.example.mrbs.exception.ResourceNotFoundException;
+import com.example.mrbs.exception.StaleVersionException;
 import com.example.mrbs.model.MeetingRoom;
 import com.example.mrbs.model.MeetingRoom.RoomAvailability;
 import com.example.mrbs.model.MeetingRoom.RoomLocation;
 import com.example.mrbs.repository.MeetingRoomRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
 public class MeetingRoomService {
@@ -19,37 +26,107 @@ public class MeetingRoomService {
     @Autowired
     private MeetingRoomRepository roomRepository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private RoomAvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private RoomCatalogCache catalogCache;
+
+    @Autowired
+    private ReadYourWritesPins readYourWrites;
+
+    // Row lock on the room so bookings on other instances serialize with ours
+    @Value("${booking.lock.row-lock:true}")
+    private boolean rowLock;
+
+    /**
+     * Rooms returned by the finders below come from {@link RoomCatalogCache} and are shared, read-only copies.
+     */
     public List<MeetingRoom> findAllRooms() {
-        return roomRepository.findAll();
+        return catalogCache.rooms();
     }
 
-    @Transactional(readOnly = true)
     public MeetingRoom findById(Long id) {
+        return catalogCache.room(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Meeting Room", "id", id));
+    }
+
+    public byte[] findAllRoomsJson() {
+        return catalogCache.json("all", catalog -> toResponses(catalog.rooms()));
+    }
+
+    public byte[] findByIdJson(Long id) {
+        return catalogCache.json("id:" + id, catalog -> RoomResponse.fromRoom(catalog.room(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Meeting Room", "id", id))));
+    }
+
+    public byte[] findRoomsByLocationJson(String location) {
+        RoomLocation roomLocation = parseLocation(location);
+        return catalogCache.json("location:" + roomLocation, catalog -> toResponses(byLocation(catalog.rooms(), roomLocation)));
+    }
+
+    public byte[] findRoomsByMinCapacityJson(int capacity) {
+        return catalogCache.json("capacity:" + capacity, catalog -> toResponses(byMinCapacity(catalog.rooms(), capacity)));
+    }
+
+    // Writes need a managed entity of their own, never one of the cached copies
+    private MeetingRoom loadRoom(Long id) {
         return roomRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Meeting Room", "id", id));
     }
 
+    /**
+     * Loads a room for a booking that is about to check and claim one of its slots. Must run
+     * inside the booking transaction, after the room's {@link RoomBookingLocks} stripe is held.
+     * That transaction must run at READ COMMITTED: under REPEATABLE READ the overlap check that
+     * follows would read the snapshot taken before the wait and miss bookings committed during it.
+     */
+    @Transactional
+    public MeetingRoom findForBooking(Long id) {
+        if (!rowLock) {
+            return loadRoom(id);
+        }
+        return roomRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Meeting Room", "id", id));
+    }
+
     @Transactional(readOnly = true)
     public List<MeetingRoom> findAvailableRooms() {
         return roomRepository.findByAvailability(RoomAvailability.Available);
     }
 
-    @Transactional(readOnly = true)
     public List<MeetingRoom> findRoomsByLocation(String location) {
+        return byLocation(findAllRooms(), parseLocation(location));
+    }
+
+    public List<MeetingRoom> findRoomsByMinCapacity(int capacity) {
+        return byMinCapacity(findAllRooms(), capacity);
+    }
+
+    private static RoomLocation parseLocation(String location) {
         try {
-            RoomLocation roomLocation = RoomLocation.valueOf(location.replace(" ", "_"));
-            return roomRepository.findByLocation(roomLocation);
+            return RoomLocation.valueOf(location.replace(" ", "_"));
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid location: " + location);
         }
     }
 
-    @Transactional(readOnly = true)
-    public List<MeetingRoom> findRoomsByMinCapacity(int capacity) {
-        return roomRepository.findByMinCapacity(capacity);
+    private static List<MeetingRoom> byLocation(List<MeetingRoom> rooms, RoomLocation location) {
+        return rooms.stream().filter(room -> room.getLocation() == location).toList();
+    }
+
+    private static List<MeetingRoom> byMinCapacity(List<MeetingRoom> rooms, int capacity) {
+        return rooms.stream().filter(room -> room.getCapacity() >= capacity).toList();
+    }
+
+    private static List<RoomResponse> toResponses(List<MeetingRoom> rooms) {
+        return rooms.stream().map(RoomResponse::fromRoom).toList();
     }
 
+    @Timed(value = "room.availability.search", description = "Time to find the rooms free for a time slot")
     @Transactional(readOnly = true)
     public List<MeetingRoom> findAvailableRoomsForTimeSlot(LocalDateTime startTime, LocalDateTime endTime) {
         // Validate time slot
@@ -57,6 +134,10 @@ public class MeetingRoomService {
             throw new IllegalArgumentException("Start time must be before end time");
         }
 
+        // Reservations before the in-memory horizon are only in the database
+        if (availabilityEngine.covers(startTime)) {
+            return availabilityEngine.filterAvailable(findAllRooms(), startTime, endTime);
+        }
         return roomRepository.findAvailableRoomsForTimeSlot(startTime, endTime);
     }
 
@@ -76,12 +157,22 @@ public class MeetingRoomService {
         room.setDescription(roomDto.getDescription());
         room.setImageURL(roomDto.getImageURL());
 
-        return roomRepository.save(room);
+        MeetingRoom saved = roomRepository.save(room);
+        catalogCache.invalidateAfterCommit();
+        readYourWrites.pinAfterCommit();
+        return saved;
     }
 
-    @Transactional
     public MeetingRoom updateRoom(Long id, RoomDto roomDto) {
-        MeetingRoom room = findById(id);
+        return retryOnConflict(id, () -> applyUpdate(id, roomDto));
+    }
+
+    private MeetingRoom applyUpdate(Long id, RoomDto roomDto) {
+        MeetingRoom room = loadRoom(id);
+
+        if (roomDto.getVersion() != null && !roomDto.getVersion().equals(room.getVersion())) {
+            throw new StaleVersionException("Meeting Room", id, room);
+        }
 
         room.setName(roomDto.getName());
         room.setImageURL(roomDto.getImageURL());
@@ -106,12 +197,18 @@ public class MeetingRoomService {
             room.setDescription(roomDto.getDescription());
         }
 
-        return roomRepository.save(room);
+        MeetingRoom saved = roomRepository.save(room);
+        catalogCache.invalidateAfterCommit();
+        readYourWrites.pinAfterCommit();
+        return saved;
     }
 
-    @Transactional
     public MeetingRoom addDescription(Long id, String feedback) {
-        MeetingRoom room = findById(id);
+        return retryOnConflict(id, () -> appendDescription(id, feedback));
+    }
+
+    private MeetingRoom appendDescription(Long id, String feedback) {
+        MeetingRoom room = loadRoom(id);
 
         // Append new feedback to existing feedback with timestamp
         String timestamp = LocalDateTime.now().toString();
@@ -123,12 +220,25 @@ public class MeetingRoomService {
             room.setDescription(newDescription);
         }
 
-        return roomRepository.save(room);
+        MeetingRoom saved = roomRepository.save(room);
+        catalogCache.invalidateAfterCommit();
+        readYourWrites.pinAfterCommit();
+        return saved;
+    }
+
+    private MeetingRoom retryOnConflict(Long id, Supplier<MeetingRoom> update) {
+        try {
+            return optimisticRetry.execute(update);
+        } catch (OptimisticLockingFailureException e) {
+            throw new StaleVersionException("Meeting Room", id, loadRoom(id));
+        }
     }
 
     @Transactional
     public void deleteRoom(Long id) {
-        MeetingRoom room = findById(id);
+        MeetingRoom room = loadRoom(id);
         roomRepository.delete(room);
+        catalogCache.invalidateAfterCommit();
+        readYourWrites.pinAfterCommit();
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.OccupancyMatrix;
+import com.example.mrbs.dto.OccupancyMatrix.RoomOccupancy;
+import com.example.mrbs.dto.ReservationInterval;
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the rooms-by-slots free/busy matrix behind the day view from a single range query.
+ */
+@Service
+public class OccupancyService {
+
+    private static final int MIN_SLOT_MINUTES = 5;
+    private static final int MAX_SLOTS = 4 * 24 * 31;
+
+    @Autowired
+    private MeetingRoomService roomService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Transactional(readOnly = true)
+    public OccupancyMatrix getOccupancy(String location, LocalDateTime from, LocalDateTime to, int slotMinutes) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        if (slotMinutes < MIN_SLOT_MINUTES) {
+            throw new IllegalArgumentException("Slots must be at least " + MIN_SLOT_MINUTES + " minutes long");
+        }
+        long minutes = Duration.between(from, to).toMinutes();
+        int slots = (int) Math.min(Integer.MAX_VALUE, (minutes + slotMinutes - 1) / slotMinutes);
+        if (slots > MAX_SLOTS) {
+            throw new IllegalArgumentException("Requested range has more than " + MAX_SLOTS + " slots, use a larger slot size");
+        }
+
+        List<MeetingRoom> rooms = location == null ? roomService.findAllRooms() : roomService.findRoomsByLocation(location);
+        if (rooms.isEmpty()) {
+            return new OccupancyMatrix(from, to, slotMinutes, slots, List.of());
+        }
+
+        Map<Long, List<ReservationInterval>> busyByRoom = reservationRepository
+                .findConfirmedIntervalsForRoomsBetween(rooms.stream().map(MeetingRoom::getId).toList(), from, to)
+                .stream()
+                .collect(Collectors.groupingBy(ReservationInterval::getRoomId));
+
+        List<RoomOccupancy> rows = new ArrayList<>(rooms.size());
+        for (MeetingRoom room : rooms) {
+            long[] bitmap = SlotBitmap.create(slots);
+            for (ReservationInterval interval : busyByRoom.getOrDefault(room.getId(), List.of())) {
+                mark(bitmap, interval, from, to, slotMinutes, slots);
+            }
+            rows.add(new RoomOccupancy(room.getId(), room.getName(), room.getCapacity(), SlotBitmap.runLengths(bitmap, slots)));
+        }
+        return new OccupancyMatrix(from, to, slotMinutes, slots, rows);
+    }
+
+    // A slot is busy when a reservation covers any part of it; a reservation ending exactly on a boundary stops there
+    private static void mark(long[] bitmap, ReservationInterval interval, LocalDateTime from, LocalDateTime to,
+                             int slotMinutes, int slots) {
+        LocalDateTime start = interval.getStartTime().isBefore(from) ? from : interval.getStartTime();
+        LocalDateTime end = interval.getEndTime().isAfter(to) ? to : interval.getEndTime();
+        if (!end.isAfter(start)) {
+            return;
+        }
+        long startSeconds = Duration.between(from, start).getSeconds();
+        long endSeconds = Duration.between(from, end).getSeconds();
+        long slotSeconds = slotMinutes * 60L;
+
+        int first = (int) (startSeconds / slotSeconds);
+        int last = (int) ((endSeconds - 1) / slotSeconds);
+        SlotBitmap.set(bitmap, first, Math.min(last, slots - 1));
+    }
+}
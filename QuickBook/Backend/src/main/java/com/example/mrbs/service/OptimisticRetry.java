@@ -0,0 +1,64 @@
+package com.example.mrbs.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write unit in its own transaction and re-runs it when the commit loses
+ * an optimistic version check to a concurrent writer. Callers already inside a transaction
+ * get a single attempt, since only the outermost transaction can be retried.
+ * <p>
+ * Runs at READ COMMITTED, so reads made after a lock is taken see what was committed while waiting.
+ */
+@Component
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${booking.retry.backoff-ms:20}")
+    private long backoffMillis;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        // Linear backoff with jitter so colliding writers do not retry in lockstep
+        long delay = backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a conflicting update", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.mrbs.service;
+
+import java.time.Duration;
+
+/**
+ * Holds the pending one-time password of each email until it is used, expires or runs out of attempts.
+ */
+public interface OtpStore {
+
+    /**
+     * Stores a new code for {@code email}, replacing any earlier one and resetting its attempts.
+     */
+    void save(String email, String code, Duration ttl);
+
+    /**
+     * Checks a code, counting the attempt. A matching code is used up; a code that has expired or
+     * has had {@code maxAttempts} tries never matches again.
+     */
+    boolean consume(String email, String code, int maxAttempts);
+
+    /**
+     * Drops expired codes and returns how many were removed.
+     */
+    int sweep();
+}
@@ -0,0 +1,58 @@
+package com.example.mrbs.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encrypts the template parameters of queued mail with AES-GCM, so values such as one-time
+ * passwords are never stored in {@code email_outbox} in the clear. Every instance that queues or
+ * sends mail must share {@code mail.outbox.key}; see {@link SharedKeys}.
+ */
+@Component
+public class OutboxCipher {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+
+    public OutboxCipher(@Value("${mail.outbox.key:}") String base64Key, Environment environment) {
+        this.key = new SecretKeySpec(SharedKeys.decode("mail.outbox.key", base64Key, 32, environment), "AES");
+    }
+
+    public String encrypt(String plaintext) {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] sealed = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + sealed.length).put(iv).put(sealed).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt queued mail", e);
+        }
+    }
+
+    /**
+     * Fails with {@link GeneralSecurityException} when the value was sealed with another key or altered.
+     */
+    public String decrypt(String ciphertext) throws GeneralSecurityException {
+        byte[] sealed = Base64.getDecoder().decode(ciphertext);
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, sealed, 0, IV_BYTES));
+        return new String(cipher.doFinal(sealed, IV_BYTES, sealed.length - IV_BYTES), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.ReservationResponse;
+import com.example.mrbs.model.ArchivedReservation;
+import com.example.mrbs.repository.ArchivedReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves completed and cancelled reservations that ended more than {@code booking.archive.horizon-days}
+ * ago into {@code reservations_archive}, and reads them back for history listings whose range
+ * reaches past the horizon. Each chunk moves in its own transaction, so an interrupted run simply
+ * resumes with the rows still left in the hot table.
+ */
+@Service
+public class ReservationArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationArchiveService.class);
+
+    // Reservations with feedback stay hot, since feedback references them
+    private static final String CANDIDATES_SQL = """
+            SELECT r.id FROM reservations r
+            WHERE r.status IN ('completed', 'cancelled')
+            AND r.end_time < :cutoff
+            AND r.id > :afterId
+            AND NOT EXISTS (SELECT 1 FROM feedbacks f WHERE f.reservation_id = r.id)
+            ORDER BY r.id
+            LIMIT :limit
+            """;
+    private static final String LOCK_SQL = """
+            SELECT r.id FROM reservations r
+            WHERE r.id IN (:ids)
+            AND r.status IN ('completed', 'cancelled')
+            AND r.end_time < :cutoff
+            FOR UPDATE
+            """;
+    private static final String COPY_SQL = """
+            INSERT INTO reservations_archive
+                (id, user_id, room_id, title, start_time, end_time, amenities, status, created_at, version, archived_at)
+            SELECT id, user_id, room_id, title, start_time, end_time, amenities, status, created_at, version, :archivedAt
+            FROM reservations WHERE id IN (:ids)
+            """;
+    private static final String DELETE_SQL = "DELETE FROM reservations WHERE id IN (:ids)";
+
+    private final ArchivedReservationRepository archiveRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.archive.horizon-days:180}")
+    private int horizonDays;
+
+    @Value("${booking.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${booking.archive.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    public ReservationArchiveService(ArchivedReservationRepository archiveRepository,
+                                     NamedParameterJdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager) {
+        this.archiveRepository = archiveRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reservations ending before this may live in the archive.
+     */
+    public LocalDateTime cutoff() {
+        return LocalDateTime.now().minusDays(horizonDays);
+    }
+
+    /**
+     * True when a listing starting at {@code from} (null meaning all history) can include archived rows.
+     */
+    public boolean reaches(LocalDateTime from) {
+        return from == null || from.isBefore(cutoff());
+    }
+
+    public List<ReservationResponse> findByRoom(Long roomId) {
+        return toResponses(archiveRepository.findByRoomId(roomId));
+    }
+
+    public List<ReservationResponse> findByRoomAndDateRange(Long roomId, LocalDateTime fromDate, LocalDateTime toDate) {
+        return toResponses(archiveRepository.findByRoomIdAndDateRange(roomId, fromDate, toDate));
+    }
+
+    public List<ReservationResponse> findByUserEmail(String email) {
+        return toResponses(archiveRepository.findByUserEmail(email));
+    }
+
+    public List<ReservationResponse> findByUserEmailAndDateRange(String email, LocalDateTime fromDate, LocalDateTime toDate) {
+        return toResponses(archiveRepository.findByUserEmailAndDateRange(email, fromDate, toDate));
+    }
+
+    @Scheduled(fixedDelayString = "${booking.archive.interval:3600000}", initialDelayString = "${booking.archive.interval:3600000}")
+    public void archiveExpired() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = cutoff();
+        long afterId = 0;
+        int moved = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Long> ids = jdbcTemplate.queryForList(CANDIDATES_SQL, new MapSqlParameterSource()
+                    .addValue("cutoff", Timestamp.valueOf(cutoff))
+                    .addValue("afterId", afterId)
+                    .addValue("limit", chunkSize), Long.class);
+            if (ids.isEmpty()) {
+                break;
+            }
+            moved += moveChunk(ids, cutoff);
+            afterId = ids.get(ids.size() - 1);
+        }
+        if (moved > 0) {
+            log.info("Archived {} reservations that ended before {}", moved, cutoff);
+        }
+    }
+
+    int moveChunk(List<Long> candidates, LocalDateTime cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            // Re-check under row locks, in case a reservation changed since it was selected
+            List<Long> ids = jdbcTemplate.queryForList(LOCK_SQL, new MapSqlParameterSource()
+                    .addValue("ids", candidates)
+                    .addValue("cutoff", Timestamp.valueOf(cutoff)), Long.class);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ids", ids)
+                    .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+            jdbcTemplate.update(COPY_SQL, params);
+            return jdbcTemplate.update(DELETE_SQL, params);
+        });
+        return moved == null ? 0 : moved;
+    }
+
+    private static List<ReservationResponse> toResponses(List<ArchivedReservation> reservations) {
+        return reservations.stream().map(ReservationResponse::fromArchived).toList();
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.config.NodeLocal;
+import com.example.mrbs.dto.ReservationInterval;
+import com.example.mrbs.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory, per-room sorted interval map of confirmed reservations that end at or after
+ * {@link #coveredFrom}. The database stays the source of truth: the index is rebuilt from
+ * it at startup and periodically, and kept in sync with committed changes in between.
+ */
+@Component
+public class ReservationIntervalIndex implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationIntervalIndex.class);
+
+    private final ReservationRepository reservationRepository;
+
+    @Value("${booking.index.enabled:true}")
+    private boolean enabled;
+
+    // Only safe when this node is the single writer; otherwise "free" answers are re-checked in the DB
+    @Value("${booking.index.authoritative:false}")
+    private boolean authoritative;
+
+    private volatile ConcurrentMap<Long, IntervalTimeline> timelines = new ConcurrentHashMap<>();
+    private volatile LocalDateTime coveredFrom;
+
+    // Changes committed while a rebuild is running, replayed onto the rebuilt map before it is swapped in
+    private List<Change> journal;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public ReservationIntervalIndex(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Every node keeps its own index, so every node refreshes it
+    @NodeLocal
+    @Scheduled(fixedDelayString = "${booking.index.refresh-interval:300000}",
+            initialDelayString = "${booking.index.refresh-interval:300000}")
+    public void refresh() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        LocalDateTime from = LocalDateTime.now();
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+
+        ConcurrentMap<Long, IntervalTimeline> rebuilt = new ConcurrentHashMap<>();
+        List<ReservationInterval> intervals;
+        try {
+            intervals = reservationRepository.findConfirmedIntervalsEndingAfter(from);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                journal = null;
+            }
+            log.warn("Could not load reservation interval index, overlap checks will use the database", e);
+            return;
+        }
+        for (ReservationInterval interval : intervals) {
+            rebuilt.computeIfAbsent(interval.getRoomId(), id -> new IntervalTimeline()).put(interval);
+        }
+
+        synchronized (this) {
+            for (Change change : journal) {
+                change.applyTo(rebuilt, from);
+            }
+            journal = null;
+            timelines = rebuilt;
+            coveredFrom = from;
+        }
+        listeners.forEach(Listener::rebuilt);
+        log.debug("Reservation interval index loaded with {} intervals across {} rooms", intervals.size(), rebuilt.size());
+    }
+
+    /**
+     * True when every confirmed reservation that could overlap a slot starting at {@code start}
+     * is held in memory.
+     */
+    public boolean covers(LocalDateTime start) {
+        LocalDateTime from = coveredFrom;
+        return enabled && from != null && !start.isBefore(from);
+    }
+
+    public boolean isAuthoritative() {
+        return authoritative;
+    }
+
+    public boolean hasOverlap(Long roomId, LocalDateTime start, LocalDateTime end, Long excludeReservationId) {
+        IntervalTimeline timeline = timelines.get(roomId);
+        return timeline != null && timeline.hasOverlap(start, end, excludeReservationId);
+    }
+
+    /**
+     * Confirmed reservations of a room overlapping {@code from..to} (inclusive), ordered by start time.
+     */
+    public List<ReservationInterval> intervalsBetween(Long roomId, LocalDateTime from, LocalDateTime to) {
+        IntervalTimeline timeline = timelines.get(roomId);
+        return timeline == null ? List.of() : timeline.intervalsBetween(from, to);
+    }
+
+    /**
+     * Every confirmed reservation currently held, in no particular order.
+     */
+    public List<ReservationInterval> allIntervals() {
+        List<ReservationInterval> all = new ArrayList<>();
+        timelines.values().forEach(timeline -> all.addAll(timeline.all()));
+        return all;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Records the committed state of a reservation. Inside a transaction the change is applied
+     * after commit, so rolled back bookings never reach the index.
+     */
+    public void applyAfterCommit(ReservationInterval interval, boolean confirmed) {
+        Change change = new Change(interval, confirmed);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    public void removeAfterCommit(Long reservationId, Long roomId) {
+        applyAfterCommit(new ReservationInterval(reservationId, roomId, null, null), false);
+    }
+
+    /**
+     * Drops the given reservations that ended at or before {@code now}, and moves
+     * {@link #coveredFrom} past their end so lookups that could still overlap them go to the database.
+     */
+    public void removeEnded(Collection<Long> reservationIds, LocalDateTime now) {
+        Set<Long> touched = new HashSet<>();
+        synchronized (this) {
+            if (coveredFrom == null) {
+                return;
+            }
+            LocalDateTime latestEnd = coveredFrom;
+            for (Long reservationId : reservationIds) {
+                for (Map.Entry<Long, IntervalTimeline> entry : timelines.entrySet()) {
+                    ReservationInterval interval = entry.getValue().get(reservationId);
+                    if (interval != null && !interval.getEndTime().isAfter(now)) {
+                        entry.getValue().remove(reservationId);
+                        touched.add(entry.getKey());
+                        if (interval.getEndTime().isAfter(latestEnd)) {
+                            latestEnd = interval.getEndTime();
+                        }
+                    }
+                }
+            }
+            coveredFrom = latestEnd;
+        }
+        for (Listener listener : listeners) {
+            touched.forEach(listener::roomChanged);
+        }
+    }
+
+    private void apply(Change change) {
+        Set<Long> touched = Set.of();
+        synchronized (this) {
+            if (coveredFrom != null || journal != null) {
+                if (journal != null) {
+                    journal.add(change);
+                }
+                touched = change.applyTo(timelines, coveredFrom);
+            }
+        }
+        for (Listener listener : listeners) {
+            listener.intervalChanged(change.interval(), change.confirmed());
+            touched.forEach(listener::roomChanged);
+        }
+    }
+
+    /**
+     * Notified after the intervals of a room change, and after a full rebuild.
+     */
+    public interface Listener {
+
+        void roomChanged(Long roomId);
+
+        void rebuilt();
+
+        /**
+         * A committed reservation change, delivered even while the index itself is not loaded.
+         * Removals carry no times.
+         */
+        default void intervalChanged(ReservationInterval interval, boolean confirmed) {
+        }
+    }
+
+    private record Change(ReservationInterval interval, boolean confirmed) {
+
+        Set<Long> applyTo(ConcurrentMap<Long, IntervalTimeline> target, LocalDateTime from) {
+            Set<Long> touched = new HashSet<>();
+            // A reservation may have moved rooms, so drop it wherever it currently lives
+            target.forEach((roomId, timeline) -> {
+                if (timeline.remove(interval.getReservationId())) {
+                    touched.add(roomId);
+                }
+            });
+            if (confirmed && (from == null || !interval.getEndTime().isBefore(from))) {
+                target.computeIfAbsent(interval.getRoomId(), id -> new IntervalTimeline()).put(interval);
+                touched.add(interval.getRoomId());
+            }
+            return touched;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.config.NodeLocal;
+import com.example.mrbs.dto.ReservationInterval;
+import com.example.mrbs.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Completes confirmed reservations as they end. End times of committed reservations are fed
+ * from {@link ReservationIntervalIndex} into a {@link HashedTimerWheel}; each tick updates only
+ * the reservations that just became due and drops them from the index. A periodic sweep catches
+ * whatever no wheel completed, such as reservations that ended while every instance was down.
+ */
+@Component
+public class ReservationLifecycleScheduler implements ReservationIntervalIndex.Listener {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationLifecycleScheduler.class);
+
+    private static final int BUCKETS = 4096;
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationIntervalIndex intervalIndex;
+    private final HashedTimerWheel<Long> wheel;
+
+    @Value("${booking.lifecycle.batch-size:100}")
+    private int batchSize;
+
+    public ReservationLifecycleScheduler(ReservationRepository reservationRepository,
+                                         ReservationIntervalIndex intervalIndex,
+                                         @Value("${booking.lifecycle.tick-ms:1000}") long tickMillis) {
+        this.reservationRepository = reservationRepository;
+        this.intervalIndex = intervalIndex;
+        this.wheel = new HashedTimerWheel<>(tickMillis, BUCKETS, System.currentTimeMillis());
+        intervalIndex.addListener(this);
+    }
+
+    @Override
+    public void intervalChanged(ReservationInterval interval, boolean confirmed) {
+        if (confirmed) {
+            wheel.schedule(interval.getReservationId(), toMillis(interval.getEndTime()));
+        } else {
+            wheel.cancel(interval.getReservationId());
+        }
+    }
+
+    @Override
+    public void rebuilt() {
+        // Missed cancellations are harmless: completeDue re-checks the row before changing it
+        for (ReservationInterval interval : intervalIndex.allIntervals()) {
+            wheel.schedule(interval.getReservationId(), toMillis(interval.getEndTime()));
+        }
+    }
+
+    @Override
+    public void roomChanged(Long roomId) {
+    }
+
+    // Each wheel only holds what this node's index has seen, so every node ticks; completeDue is
+    // conditional, so a reservation due on several nodes is completed once
+    @NodeLocal
+    @Scheduled(fixedDelayString = "${booking.lifecycle.tick-ms:1000}")
+    public void tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (!due.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            complete(due, now);
+            intervalIndex.removeEnded(due, now);
+        }
+    }
+
+    // Runs on the lease holder only, and sweeps the database for whatever no wheel completed
+    @Scheduled(fixedDelayString = "${booking.lifecycle.reconcile-interval:300000}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        int completed = 0;
+        List<Long> due;
+        do {
+            due = reservationRepository.findDueConfirmedIds(now, Limit.of(batchSize));
+            completed += complete(due, now);
+        } while (due.size() == batchSize);
+        if (completed > 0) {
+            log.info("Reconciliation completed {} reservations the timer wheel had not seen", completed);
+        }
+    }
+
+    private int complete(List<Long> ids, LocalDateTime now) {
+        int completed = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            completed += reservationRepository.completeDue(ids.subList(from, Math.min(from + batchSize, ids.size())), now);
+        }
+        log.debug("Completed {} of {} due reservations", completed, ids.size());
+        return completed;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
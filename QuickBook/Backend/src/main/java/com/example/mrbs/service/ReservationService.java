@@ -1,21 +1,34 @@
 package com.example.mrbs.service;
 
+import com.example.mrbs.config.ReadYourWritesPins;
+import com.example.mrbs.dto.KeysetPage;
 import com.example.mrbs.dto.ReservationDto;
+import com.example.mrbs.dto.ReservationFilter;
+import com.example.mrbs.dto.ReservationInterval;
+import com.example.mrbs.dto.ReservationResponse;
 import com.example.mrbs.exception.ResourceNotFoundException;
 import com.example.mrbs.exception.RoomNotAvailableException;
+import com.example.mrbs.exception.StaleVersionException;
 import com.example.mrbs.model.MeetingRoom;
 import com.example.mrbs.model.Reservation;
 import com.example.mrbs.model.Reservation.ReservationStatus;
 import com.example.mrbs.model.User;
 import com.example.mrbs.repository.ReservationRepository;
+import com.example.mrbs.repository.ReservationSpecifications;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
 public class ReservationService {
@@ -29,9 +42,30 @@ public class ReservationService {
     @Autowired
     private MeetingRoomService roomService;
 
+    @Autowired
+    private ReservationIntervalIndex intervalIndex;
+
+    @Autowired
+    private RoomBookingLocks bookingLocks;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private ReservationArchiveService archiveService;
+
+    @Autowired
+    private ReadYourWritesPins readYourWrites;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Transactional(readOnly = true)
-    public List<Reservation> findAllReservations() {
-        return reservationRepository.findAll();
+    public KeysetPage<ReservationResponse> findReservations(ReservationFilter filter, Long cursor, int limit) {
+        int size = KeysetPage.clamp(limit);
+        List<Reservation> rows = reservationRepository.findBy(ReservationSpecifications.matching(filter, cursor),
+                q -> q.sortBy(Sort.by(Sort.Direction.DESC, "id")).limit(size + 1).all());
+        return KeysetPage.of(rows, size, Reservation::getId).map(ReservationResponse::fromReservation);
     }
 
     @Transactional(readOnly = true)
@@ -41,29 +75,42 @@ public class ReservationService {
     }
 
     @Transactional(readOnly = true)
-    public List<Reservation> findUserReservations(String email) {
-        return reservationRepository.findByUserEmail(email);
+    public List<ReservationResponse> findUserReservations(String email) {
+        return withArchive(toResponses(reservationRepository.findByUserEmail(email)),
+                archiveService.findByUserEmail(email));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReservationResponse> findUserReservationsByDateRange(String email, LocalDateTime fromDate, LocalDateTime toDate) {
+        List<ReservationResponse> hot = toResponses(reservationRepository.findByUserEmailAndDateRange(email, fromDate, toDate));
+        return archiveService.reaches(fromDate)
+                ? withArchive(hot, archiveService.findByUserEmailAndDateRange(email, fromDate, toDate))
+                : hot;
     }
 
     @Transactional(readOnly = true)
-    public List<Reservation> findReservationsByUser(Long userId) {
-        return reservationRepository.findByUserId(userId);
+    public List<ReservationResponse> findReservationsByUser(Long userId) {
+        return toResponses(reservationRepository.findByUserId(userId));
     }
 
     @Transactional(readOnly = true)
-    public List<Reservation> findReservationsByRoom(Long roomId) {
-        return reservationRepository.findByRoomId(roomId);
+    public List<ReservationResponse> findReservationsByRoom(Long roomId) {
+        return withArchive(toResponses(reservationRepository.findByRoomId(roomId)),
+                archiveService.findByRoom(roomId));
     }
 
     @Transactional(readOnly = true)
-    public List<Reservation> findReservationsByRoomAndDateRange(Long roomId, LocalDateTime fromDate, LocalDateTime toDate) {
-        return reservationRepository.findByRoomIdAndDateRange(roomId, fromDate, toDate);
+    public List<ReservationResponse> findReservationsByRoomAndDateRange(Long roomId, LocalDateTime fromDate, LocalDateTime toDate) {
+        List<ReservationResponse> hot = toResponses(reservationRepository.findByRoomIdAndDateRange(roomId, fromDate, toDate));
+        return archiveService.reaches(fromDate)
+                ? withArchive(hot, archiveService.findByRoomAndDateRange(roomId, fromDate, toDate))
+                : hot;
     }
 
-    @Transactional
-    public Reservation createReservation(String userEmail, ReservationDto reservationDto) {
+    @Timed(value = "booking.create", description = "Time to validate and book a single reservation")
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public ReservationResponse createReservation(String userEmail, ReservationDto reservationDto) {
         User user = userService.findByEmail(userEmail);
-        MeetingRoom room = roomService.findById(reservationDto.getRoomId());
 
         // Validate time slot
         LocalDateTime startTime = reservationDto.getStartTime();
@@ -77,13 +124,13 @@ public class ReservationService {
             throw new IllegalArgumentException("Start time cannot be in the past");
         }
 
-        // Check if room is available for the specified time slot
-        boolean isOverlapping = reservationRepository.existsOverlappingReservation(
-                room.getId(), startTime, endTime);
+        // Writers on the same room queue here until commit; other rooms are not blocked
+        bookingLocks.lockUntilCompletion(reservationDto.getRoomId());
+        MeetingRoom room = roomService.findForBooking(reservationDto.getRoomId());
 
-        if (isOverlapping) {
-            throw new RoomNotAvailableException(room.getId(),
-                    "from " + startTime + " to " + endTime);
+        // Check if room is available for the specified time slot
+        if (isOverlapping(room.getId(), null, startTime, endTime)) {
+            throw conflict(room.getId(), startTime, endTime);
         }
 
         // Create reservation
@@ -96,12 +143,19 @@ public class ReservationService {
         reservation.setStatus(ReservationStatus.confirmed);
         reservation.setAmenities(reservationDto.getAmenities());
 
-        return reservationRepository.save(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+        syncIndex(saved);
+        readYourWrites.pinAfterCommit();
+        return ReservationResponse.fromReservation(saved);
     }
 
-    @Transactional
-    public Reservation updateReservation(Long id, String userEmail, ReservationDto reservationDto) {
+    public ReservationResponse updateReservation(Long id, String userEmail, ReservationDto reservationDto) {
+        return retryOnConflict(id, () -> applyUpdate(id, userEmail, reservationDto));
+    }
+
+    private ReservationResponse applyUpdate(Long id, String userEmail, ReservationDto reservationDto) {
         Reservation reservation = findById(id);
+        expectVersion(reservation, reservationDto.getVersion());
         User user = userService.findByEmail(userEmail);
 
         // Check if the reservation belongs to the user
@@ -111,29 +165,23 @@ public class ReservationService {
 
         // If room is changed, validate availability
         Long newRoomId = reservationDto.getRoomId();
-        if (!reservation.getRoom().getId().equals(newRoomId)) {
-            MeetingRoom newRoom = roomService.findById(newRoomId);
+        bookingLocks.lockUntilCompletion(newRoomId);
+        MeetingRoom newRoom = roomService.findForBooking(newRoomId);
 
+        if (!reservation.getRoom().getId().equals(newRoomId)) {
             // Check if new room is available for the specified time slot
-            boolean isOverlapping = reservationRepository.existsOverlappingReservation(
-                    newRoomId, reservationDto.getStartTime(), reservationDto.getEndTime());
-
-            if (isOverlapping) {
-                throw new RoomNotAvailableException(newRoomId,
-                        "from " + reservationDto.getStartTime() + " to " + reservationDto.getEndTime());
+            if (isOverlapping(newRoomId, null, reservationDto.getStartTime(), reservationDto.getEndTime())) {
+                throw conflict(newRoomId, reservationDto.getStartTime(), reservationDto.getEndTime());
             }
+            reservation.setRoom(newRoom);
         }
         // If time slot is changed but room remains the same, validate availability
         else if (!reservation.getStartTime().equals(reservationDto.getStartTime()) ||
                 !reservation.getEndTime().equals(reservationDto.getEndTime())) {
 
             // Check if room is available for the new time slot (excluding current reservation)
-            boolean isOverlapping = reservationRepository.existsOverlappingReservationExcludingThis(
-                    id, newRoomId, reservationDto.getStartTime(), reservationDto.getEndTime());
-
-            if (isOverlapping) {
-                throw new RoomNotAvailableException(newRoomId,
-                        "from " + reservationDto.getStartTime() + " to " + reservationDto.getEndTime());
+            if (isOverlapping(newRoomId, id, reservationDto.getStartTime(), reservationDto.getEndTime())) {
+                throw conflict(newRoomId, reservationDto.getStartTime(), reservationDto.getEndTime());
             }
         }
 
@@ -143,11 +191,17 @@ public class ReservationService {
         reservation.setEndTime(reservationDto.getEndTime());
         reservation.setAmenities(reservationDto.getAmenities());
 
-        return reservationRepository.save(reservation);
+        Reservation saved = saveVersioned(reservation);
+        syncIndex(saved);
+        readYourWrites.pinAfterCommit();
+        return ReservationResponse.fromReservation(saved);
     }
 
-    @Transactional
     public void cancelReservation(Long id, String userEmail) {
+        retryOnConflict(id, () -> applyCancel(id, userEmail));
+    }
+
+    private ReservationResponse applyCancel(Long id, String userEmail) {
         Reservation reservation = findById(id);
         User user = userService.findByEmail(userEmail);
 
@@ -159,27 +213,107 @@ public class ReservationService {
 
         // Update reservation status
         reservation.setStatus(ReservationStatus.cancelled);
-        reservationRepository.save(reservation);
+        Reservation saved = saveVersioned(reservation);
+        syncIndex(saved);
+        readYourWrites.pinAfterCommit();
+        return ReservationResponse.fromReservation(saved);
+    }
 
+    public ReservationResponse updateReservationStatus(Long id, String status) {
+        return updateReservationStatus(id, status, null);
     }
 
-    @Transactional
-    public Reservation updateReservationStatus(Long id, String status) {
+    public ReservationResponse updateReservationStatus(Long id, String status, Long expectedVersion) {
+        return retryOnConflict(id, () -> applyStatus(id, status, expectedVersion));
+    }
+
+    private ReservationResponse applyStatus(Long id, String status, Long expectedVersion) {
         Reservation reservation = findById(id);
+        expectVersion(reservation, expectedVersion);
 
         try {
             ReservationStatus newStatus = ReservationStatus.valueOf(status);
 
             reservation.setStatus(newStatus);
-            return reservationRepository.save(reservation);
+            Reservation saved = saveVersioned(reservation);
+            syncIndex(saved);
+            readYourWrites.pinAfterCommit();
+            return ReservationResponse.fromReservation(saved);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid status: " + status);
         }
     }
 
-    @Scheduled(fixedRate = 60000) // runs every minute
-    public void updateReservationStatuses() {
-        reservationRepository.markCompletedReservations(LocalDateTime.now());
-        System.out.println("Running scheduled task to update reservation statuses...");
+    /**
+     * Re-runs a read-modify-write on a reservation when a concurrent writer commits first.
+     * Once the retries are used up the caller gets a 409 carrying the current reservation.
+     */
+    private ReservationResponse retryOnConflict(Long id, Supplier<ReservationResponse> update) {
+        try {
+            return optimisticRetry.execute(update);
+        } catch (OptimisticLockingFailureException e) {
+            ReservationResponse current = reservationRepository.findWithUserAndRoomById(id)
+                    .map(ReservationResponse::fromReservation)
+                    .orElseThrow(() -> new ResourceNotFoundException("Reservation", "id", id));
+            throw new StaleVersionException("Reservation", id, current);
+        }
+    }
+
+    // Flushed so the response carries the version this write produced, not the one it replaced
+    private Reservation saveVersioned(Reservation reservation) {
+        return reservationRepository.saveAndFlush(reservation);
+    }
+
+    private void expectVersion(Reservation reservation, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(reservation.getVersion())) {
+            throw new StaleVersionException("Reservation", reservation.getId(),
+                    ReservationResponse.fromReservation(reservation));
+        }
+    }
+
+    private static List<ReservationResponse> toResponses(List<Reservation> reservations) {
+        return reservations.stream().map(ReservationResponse::fromReservation).toList();
+    }
+
+    // Archived rows are older than anything still hot, so they go first
+    private static List<ReservationResponse> withArchive(List<ReservationResponse> hot, List<ReservationResponse> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<ReservationResponse> all = new ArrayList<>(archived.size() + hot.size());
+        all.addAll(archived);
+        all.addAll(hot);
+        return all;
+    }
+
+    private boolean isOverlapping(Long roomId, Long excludeReservationId,
+                                  LocalDateTime startTime, LocalDateTime endTime) {
+        // Conflicts found in memory are final; a miss is re-checked in the DB unless the index is authoritative
+        if (intervalIndex.covers(startTime)) {
+            if (intervalIndex.hasOverlap(roomId, startTime, endTime, excludeReservationId)) {
+                return true;
+            }
+            if (intervalIndex.isAuthoritative()) {
+                return false;
+            }
+        }
+
+        if (excludeReservationId == null) {
+            return reservationRepository.existsOverlappingReservation(roomId, startTime, endTime);
+        }
+        return reservationRepository.existsOverlappingReservationExcludingThis(
+                excludeReservationId, roomId, startTime, endTime);
+    }
+
+    private RoomNotAvailableException conflict(Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        meterRegistry.counter("booking.conflicts", "kind", "single").increment();
+        return new RoomNotAvailableException(roomId, "from " + startTime + " to " + endTime);
+    }
+
+    private void syncIndex(Reservation reservation) {
+        intervalIndex.applyAfterCommit(
+                new ReservationInterval(reservation.getId(), reservation.getRoom().getId(),
+                        reservation.getStartTime(), reservation.getEndTime()),
+                reservation.getStatus() == ReservationStatus.confirmed);
     }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.config.NodeLocal;
+import com.example.mrbs.dto.ReservationInterval;
+import com.example.mrbs.model.MeetingRoom;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Answers "which rooms are free between two times" from per-room, per-day bitmaps of
+ * {@value #SLOT_MINUTES}-minute slots derived from {@link ReservationIntervalIndex}.
+ * A slot is marked when any confirmed reservation touches it, so a clear window is always
+ * free; a marked window is settled exactly against the index. Windows the index covers are
+ * answered here whether or not it is authoritative; the database is only asked about windows
+ * starting before the index's horizon. Bookings made on other nodes show up after the next
+ * index refresh, which is fine for a search: booking a room still checks for conflicts in the
+ * database unless the index is authoritative.
+ */
+@Component
+public class RoomAvailabilityEngine implements ReservationIntervalIndex.Listener {
+
+    static final int SLOT_MINUTES = 15;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    // Longer windows skip the bitmaps and go straight to the interval index
+    private static final int MAX_BITMAP_DAYS = 31;
+
+    private final ReservationIntervalIndex intervalIndex;
+
+    // roomId -> day -> slot bitmap; a room's entry is replaced wholesale when its reservations change
+    private final ConcurrentMap<Long, RoomDays> rooms = new ConcurrentHashMap<>();
+
+    public RoomAvailabilityEngine(ReservationIntervalIndex intervalIndex) {
+        this.intervalIndex = intervalIndex;
+        intervalIndex.addListener(this);
+    }
+
+    public boolean covers(LocalDateTime startTime) {
+        return intervalIndex.covers(startTime);
+    }
+
+    public List<MeetingRoom> filterAvailable(List<MeetingRoom> candidates, LocalDateTime startTime, LocalDateTime endTime) {
+        List<MeetingRoom> available = new ArrayList<>();
+        LocalDate firstDay = startTime.toLocalDate();
+        long days = ChronoUnit.DAYS.between(firstDay, endTime.toLocalDate()) + 1;
+
+        if (days > MAX_BITMAP_DAYS) {
+            for (MeetingRoom room : candidates) {
+                if (!intervalIndex.hasOverlap(room.getId(), startTime, endTime, null)) {
+                    available.add(room);
+                }
+            }
+            return available;
+        }
+
+        long[][] masks = new long[(int) days][];
+        for (int d = 0; d < days; d++) {
+            int from = d == 0 ? slotOf(startTime.toLocalTime()) : 0;
+            int to = d == days - 1 ? slotOf(endTime.toLocalTime()) : SLOTS_PER_DAY - 1;
+            masks[d] = SlotBitmap.create(SLOTS_PER_DAY);
+            SlotBitmap.set(masks[d], from, to);
+        }
+
+        for (MeetingRoom room : candidates) {
+            if (isFree(room.getId(), firstDay, masks, startTime, endTime)) {
+                available.add(room);
+            }
+        }
+        return available;
+    }
+
+    private boolean isFree(Long roomId, LocalDate firstDay, long[][] masks,
+                           LocalDateTime startTime, LocalDateTime endTime) {
+        RoomDays days = rooms.computeIfAbsent(roomId, id -> new RoomDays());
+        for (int d = 0; d < masks.length; d++) {
+            long[] bitmap = days.byDay.computeIfAbsent(firstDay.plusDays(d), day -> build(roomId, day));
+            if (SlotBitmap.intersects(bitmap, masks[d])) {
+                // Slots are coarser than reservation times, so settle a hit exactly
+                return !intervalIndex.hasOverlap(roomId, startTime, endTime, null);
+            }
+        }
+        return true;
+    }
+
+    private long[] build(Long roomId, LocalDate day) {
+        long[] bitmap = SlotBitmap.create(SLOTS_PER_DAY);
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = day.atTime(LocalTime.MAX);
+        for (ReservationInterval interval : intervalIndex.intervalsBetween(roomId, dayStart, dayEnd)) {
+            int from = interval.getStartTime().isBefore(dayStart) ? 0 : slotOf(interval.getStartTime().toLocalTime());
+            int to = interval.getEndTime().isAfter(dayEnd) ? SLOTS_PER_DAY - 1 : slotOf(interval.getEndTime().toLocalTime());
+            SlotBitmap.set(bitmap, from, to);
+        }
+        return bitmap;
+    }
+
+    // Every node builds its own bitmaps, so every node evicts them
+    @NodeLocal
+    @Scheduled(fixedDelayString = "${booking.availability.evict-interval:3600000}",
+            initialDelayString = "${booking.availability.evict-interval:3600000}")
+    public void evictPastDays() {
+        evictBefore(LocalDate.now());
+    }
+
+    void evictBefore(LocalDate day) {
+        rooms.values().forEach(days -> days.byDay.keySet().removeIf(d -> d.isBefore(day)));
+    }
+
+    int cachedDays() {
+        return rooms.values().stream().mapToInt(days -> days.byDay.size()).sum();
+    }
+
+    static int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    @Override
+    public void roomChanged(Long roomId) {
+        rooms.remove(roomId);
+    }
+
+    @Override
+    public void rebuilt() {
+        rooms.clear();
+    }
+
+    private static final class RoomDays {
+        private final ConcurrentMap<LocalDate, long[]> byDay = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.exception.RoomNotAvailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks keyed by room id. Bookings for the same room queue behind each other while
+ * bookings for rooms on other stripes run in parallel. Locks are held until the surrounding
+ * transaction has completed, so the next writer always sees the previous booking.
+ */
+@Component
+public class RoomBookingLocks {
+
+    private final ReentrantLock[] stripes;
+
+    private final long timeoutMillis;
+
+    public RoomBookingLocks(@Value("${booking.lock.stripes:64}") int stripeCount,
+                            @Value("${booking.lock.timeout-ms:5000}") long timeoutMillis) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("booking.lock.stripes must be at least 1");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    int stripeOf(Long roomId) {
+        int h = roomId.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), stripes.length);
+    }
+
+    /**
+     * Locks the stripes of the given rooms and releases them once the current transaction
+     * commits or rolls back. Stripes are taken in index order so multi-room callers cannot deadlock.
+     */
+    public void lockUntilCompletion(Long... roomIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Room booking locks require an active transaction");
+        }
+
+        int[] indexes = Arrays.stream(roomIds).mapToInt(this::stripeOf).distinct().sorted().toArray();
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                if (!stripes[index].tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new RoomNotAvailableException("Room is busy with another booking, please try again");
+                }
+                acquired++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RoomNotAvailableException("Interrupted while waiting for the room booking lock");
+        } finally {
+            if (acquired < indexes.length) {
+                unlock(indexes, acquired);
+            }
+        }
+
+        int held = acquired;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock(indexes, held);
+            }
+        });
+    }
+
+    private void unlock(int[] indexes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.repository.MeetingRoomRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the room catalog, together with the JSON of each room listing served from it.
+ * Rooms change rarely but are read on every page load and in every booking, so repeat reads need
+ * neither the database nor Jackson.
+ * <p>
+ * The cached rooms are detached copies shared by every reader and must never be modified. Room
+ * writes load their own entity from the repository and call {@link #invalidateAfterCommit()}.
+ * Writes made by other instances show up once the snapshot is older than {@code booking.room-cache.ttl}.
+ */
+@Component
+public class RoomCatalogCache {
+
+    private final MeetingRoomRepository roomRepository;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final int maxViews;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock loading = new ReentrantLock();
+
+    private final Counter catalogHits;
+    private final Counter catalogMisses;
+    private final Counter viewHits;
+    private final Counter viewMisses;
+    private final Counter writeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter sizeEvictions;
+
+    public RoomCatalogCache(MeetingRoomRepository roomRepository, ObjectMapper objectMapper, MeterRegistry registry,
+                            @Value("${booking.room-cache.ttl:60s}") Duration ttl,
+                            @Value("${booking.room-cache.max-views:256}") int maxViews) {
+        this.roomRepository = roomRepository;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttl.toNanos();
+        this.maxViews = maxViews;
+
+        catalogHits = requests(registry, "catalog", "hit");
+        catalogMisses = requests(registry, "catalog", "miss");
+        viewHits = requests(registry, "json", "hit");
+        viewMisses = requests(registry, "json", "miss");
+        writeEvictions = evictions(registry, "write");
+        expiredEvictions = evictions(registry, "expired");
+        sizeEvictions = evictions(registry, "size");
+        Gauge.builder("room.catalog.cache.rooms", snapshot, s -> s.get() == null ? 0 : s.get().catalog.rooms().size())
+                .description("Rooms held by the catalog cache")
+                .register(registry);
+    }
+
+    public List<MeetingRoom> rooms() {
+        return current().catalog.rooms();
+    }
+
+    public Optional<MeetingRoom> room(Long id) {
+        return current().catalog.room(id);
+    }
+
+    /**
+     * Returns the JSON of one listing of the catalog, rendering and serializing it only the first
+     * time {@code view} is asked for in the current snapshot. Nothing is cached when rendering throws.
+     */
+    public byte[] json(String view, Function<Catalog, Object> render) {
+        Snapshot current = current();
+        byte[] json = current.views.get(view);
+        if (json != null) {
+            viewHits.increment();
+            return json;
+        }
+        viewMisses.increment();
+        try {
+            json = objectMapper.writeValueAsBytes(render.apply(current.catalog));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize room listing " + view, e);
+        }
+        current.views.put(view, json);
+        return json;
+    }
+
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (snapshot.getAndSet(null) != null) {
+            writeEvictions.increment();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current != null && current.isFresh()) {
+            catalogHits.increment();
+            return current;
+        }
+        // A lock rather than synchronized, so a virtual thread loading the rooms does not pin its carrier
+        loading.lock();
+        try {
+            current = snapshot.get();
+            if (current != null && current.isFresh()) {
+                catalogHits.increment();
+                return current;
+            }
+            if (current != null) {
+                expiredEvictions.increment();
+            }
+            catalogMisses.increment();
+
+            long loadedAt = generation.get();
+            Snapshot loaded = new Snapshot(load());
+            // A write that committed while we were reading may be missing from what we read
+            if (generation.get() == loadedAt) {
+                snapshot.set(loaded);
+            }
+            return loaded;
+        } finally {
+            loading.unlock();
+        }
+    }
+
+    private Catalog load() {
+        List<MeetingRoom> rooms = roomRepository.findAllByOrderByIdAsc().stream()
+                .map(RoomCatalogCache::copy)
+                .toList();
+        Map<Long, MeetingRoom> byId = rooms.stream()
+                .collect(Collectors.toUnmodifiableMap(MeetingRoom::getId, Function.identity()));
+        return new Catalog(rooms, byId);
+    }
+
+    // Copies keep the cache independent of whichever persistence context did the loading
+    private static MeetingRoom copy(MeetingRoom room) {
+        return new MeetingRoom(room.getId(), room.getName(), room.getLocation(), room.getCapacity(),
+                room.getAvailability(), room.getDescription(), room.getImageURL(), room.getCreatedAt(),
+                room.getVersion());
+    }
+
+    private static Counter requests(MeterRegistry registry, String level, String result) {
+        return Counter.builder("room.catalog.cache.requests")
+                .tag("level", level)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter evictions(MeterRegistry registry, String cause) {
+        return Counter.builder("room.catalog.cache.evictions")
+                .tag("cause", cause)
+                .register(registry);
+    }
+
+    /**
+     * The rooms of one snapshot, in id order.
+     */
+    public record Catalog(List<MeetingRoom> rooms, Map<Long, MeetingRoom> byId) {
+
+        public Optional<MeetingRoom> room(Long id) {
+            return Optional.ofNullable(byId.get(id));
+        }
+    }
+
+    private final class Snapshot {
+
+        final Catalog catalog;
+        final long loadedAtNanos = System.nanoTime();
+        final Map<String, byte[]> views = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                if (size() > maxViews) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+
+        Snapshot(Catalog catalog) {
+            this.catalog = catalog;
+        }
+
+        boolean isFresh() {
+            return System.nanoTime() - loadedAtNanos < ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.mrbs.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Reads keys that every instance must share, because data sealed on one instance is opened on
+ * another. Startup fails when such a key is missing, except in the {@code dev} and {@code test}
+ * profiles, where the instance makes up a key of its own.
+ */
+final class SharedKeys {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedKeys.class);
+
+    private static final Profiles EPHEMERAL_ALLOWED = Profiles.of("dev", "test");
+
+    private SharedKeys() {
+    }
+
+    static byte[] decode(String property, String base64Key, int randomBytes, Environment environment) {
+        if (!base64Key.isBlank()) {
+            return Base64.getDecoder().decode(base64Key.trim());
+        }
+        if (!environment.acceptsProfiles(EPHEMERAL_ALLOWED)) {
+            throw new IllegalStateException(property + " is not set; give every instance the same base64 key,"
+                    + " e.g. from openssl rand -base64 " + randomBytes);
+        }
+        log.warn("{} is not set, using a random key that only this instance knows", property);
+        byte[] key = new byte[randomBytes];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.mrbs.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for fixed-size slot bitsets packed into {@code long} words, bit {@code i} being slot {@code i}.
+ */
+final class SlotBitmap {
+
+    private SlotBitmap() {
+    }
+
+    static long[] create(int slots) {
+        return new long[(slots + 63) >>> 6];
+    }
+
+    // Sets slots from..to, both inclusive
+    static void set(long[] words, int from, int to) {
+        int first = from >>> 6;
+        int last = to >>> 6;
+        for (int w = first; w <= last; w++) {
+            long mask = -1L;
+            if (w == first) {
+                mask &= -1L << (from & 63);
+            }
+            if (w == last) {
+                mask &= -1L >>> (63 - (to & 63));
+            }
+            words[w] |= mask;
+        }
+    }
+
+    static boolean get(long[] words, int slot) {
+        return (words[slot >>> 6] & (1L << (slot & 63))) != 0;
+    }
+
+    /**
+     * Run lengths of alternating free and busy slots, starting with free (possibly 0).
+     */
+    static int[] runLengths(long[] words, int slots) {
+        List<Integer> runs = new ArrayList<>();
+        boolean busy = false;
+        int length = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (get(words, slot) != busy) {
+                runs.add(length);
+                busy = !busy;
+                length = 0;
+            }
+            length++;
+        }
+        runs.add(length);
+        return runs.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static boolean intersects(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) {
+            if ((a[w] & b[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
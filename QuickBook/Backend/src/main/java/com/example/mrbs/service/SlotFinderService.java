@@ -0,0 +1,128 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.ReservationInterval;
+import com.example.mrbs.dto.SlotCandidate;
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.MeetingRoom.RoomAvailability;
+import com.example.mrbs.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the earliest free slots of a given length across rooms with one range query and a
+ * sweep over each room's reservations, instead of clients probing window after window.
+ */
+@Service
+public class SlotFinderService {
+
+    static final int STEP_MINUTES = RoomAvailabilityEngine.SLOT_MINUTES;
+
+    private static final Duration MAX_WINDOW = Duration.ofDays(31);
+    private static final int MAX_RESULTS = 50;
+
+    @Autowired
+    private MeetingRoomService roomService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Transactional(readOnly = true)
+    public List<SlotCandidate> findEarliestSlots(int durationMinutes, LocalDateTime from, LocalDateTime to,
+                                                 int minCapacity, String location, int limit) {
+        if (durationMinutes < 1) {
+            throw new IllegalArgumentException("Duration must be at least 1 minute");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Start of the search window must be before its end");
+        }
+        if (Duration.between(from, to).compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("Search window cannot be longer than " + MAX_WINDOW.toDays() + " days");
+        }
+        int wanted = Math.max(1, Math.min(limit, MAX_RESULTS));
+        Duration duration = Duration.ofMinutes(durationMinutes);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime searchFrom = from.isBefore(now) ? now : from;
+
+        List<MeetingRoom> rooms = (location == null ? roomService.findAllRooms() : roomService.findRoomsByLocation(location))
+                .stream()
+                .filter(room -> room.getCapacity() >= minCapacity)
+                .filter(room -> room.getAvailability() == RoomAvailability.Available)
+                .toList();
+        if (rooms.isEmpty() || !searchFrom.isBefore(to)) {
+            return List.of();
+        }
+
+        Map<Long, List<ReservationInterval>> busyByRoom = reservationRepository
+                .findConfirmedIntervalsForRoomsBetween(rooms.stream().map(MeetingRoom::getId).toList(), searchFrom, to)
+                .stream()
+                .collect(Collectors.groupingBy(ReservationInterval::getRoomId));
+
+        List<SlotCandidate> candidates = new ArrayList<>();
+        for (MeetingRoom room : rooms) {
+            sweep(room, busyByRoom.getOrDefault(room.getId(), List.of()), searchFrom, to, duration, wanted, candidates);
+        }
+
+        candidates.sort(Comparator.comparing(SlotCandidate::getStartTime).thenComparing(SlotCandidate::getRoomId));
+        return candidates.size() > wanted ? new ArrayList<>(candidates.subList(0, wanted)) : candidates;
+    }
+
+    /**
+     * Walks one room's reservations in start order, emitting the first aligned start of every
+     * gap long enough for the meeting. Reservations touch when one ends where the next starts,
+     * matching the overlap rule used when booking.
+     */
+    private void sweep(MeetingRoom room, List<ReservationInterval> busy, LocalDateTime from, LocalDateTime to,
+                       Duration duration, int wanted, List<SlotCandidate> out) {
+        int found = 0;
+        LocalDateTime candidate = alignUp(from);
+        for (ReservationInterval interval : busy) {
+            if (found == wanted) {
+                return;
+            }
+            LocalDateTime candidateEnd = candidate.plus(duration);
+            if (candidateEnd.isAfter(to)) {
+                return;
+            }
+            if (interval.getStartTime().isAfter(candidateEnd)) {
+                out.add(toCandidate(room, candidate, candidateEnd));
+                found++;
+            }
+            if (!interval.getEndTime().isBefore(candidate)) {
+                candidate = alignAfter(interval.getEndTime());
+            }
+        }
+        LocalDateTime candidateEnd = candidate.plus(duration);
+        if (found < wanted && !candidateEnd.isAfter(to)) {
+            out.add(toCandidate(room, candidate, candidateEnd));
+        }
+    }
+
+    private static SlotCandidate toCandidate(MeetingRoom room, LocalDateTime start, LocalDateTime end) {
+        return new SlotCandidate(room.getId(), room.getName(), room.getLocation(), room.getCapacity(), start, end);
+    }
+
+    static LocalDateTime alignUp(LocalDateTime time) {
+        LocalDateTime floor = floor(time);
+        return floor.equals(time) ? time : floor.plusMinutes(STEP_MINUTES);
+    }
+
+    static LocalDateTime alignAfter(LocalDateTime time) {
+        return floor(time).plusMinutes(STEP_MINUTES);
+    }
+
+    private static LocalDateTime floor(LocalDateTime time) {
+        LocalDateTime minutes = time.truncatedTo(ChronoUnit.MINUTES);
+        return minutes.minusMinutes(minutes.getMinute() % STEP_MINUTES);
+    }
+}
@@ -1,13 +1,20 @@
 package com.example.mrbs.service;
 
+import com.example.mrbs.config.ReadYourWritesPins;
+import com.example.mrbs.dto.KeysetPage;
 import com.example.mrbs.dto.SignupRequest;
+import com.example.mrbs.dto.UserFilter;
 import com.example.mrbs.exception.EmailDomainException;
 import com.example.mrbs.exception.ResourceNotFoundException;
 import com.example.mrbs.model.User;
+import com.example.mrbs.repository.ArchivedReservationRepository;
 import com.example.mrbs.repository.UserRepository;
+import com.example.mrbs.repository.UserSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -18,7 +25,7 @@ import java.util.Collections;
 import java.util.List;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
@@ -26,6 +33,18 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ReservationIntervalIndex intervalIndex;
+
+    @Autowired
+    private ArchivedReservationRepository archivedReservationRepository;
+
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    @Autowired
+    private ReadYourWritesPins readYourWrites;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
@@ -38,6 +57,18 @@ public class UserService implements UserDetailsService {
         );
     }
 
+    /**
+     * Stores a password rehashed during login because its bcrypt cost differs from the configured one.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        userRepository.findByEmail(userDetails.getUsername()).ifPresent(user -> user.setPassword(newPassword));
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
+    }
+
     @Transactional
     public User createUser(SignupRequest signupRequest) {
         // Check if email has valid domain
@@ -64,6 +95,8 @@ public class UserService implements UserDetailsService {
             user.setRole(User.UserRole.employee);
         }
 
+        userStatusCache.evictAfterCommit(email);
+        readYourWrites.pinAfterCommit();
         return userRepository.save(user);
     }
 
@@ -80,8 +113,11 @@ public class UserService implements UserDetailsService {
     }
 
     @Transactional(readOnly = true)
-    public List<User> findAllUsers() {
-        return userRepository.findAll();
+    public KeysetPage<User> findUsers(UserFilter filter, Long cursor, int limit) {
+        int size = KeysetPage.clamp(limit);
+        List<User> rows = userRepository.findBy(UserSpecifications.matching(filter, cursor),
+                q -> q.sortBy(Sort.by(Sort.Direction.DESC, "id")).limit(size + 1).all());
+        return KeysetPage.of(rows, size, User::getId);
     }
 
     @Transactional
@@ -93,6 +129,7 @@ public class UserService implements UserDetailsService {
         // We don't update email or password here for security reasons
         // Those should be separate endpoints with proper verification
 
+        readYourWrites.pinAfterCommit();
         return userRepository.save(user);
     }
 
@@ -108,12 +145,22 @@ public class UserService implements UserDetailsService {
             throw new IllegalArgumentException("Invalid role: " + role);
         }
 
+        // Tokens carrying the old role stop working here at once, and elsewhere within the status TTL
+        userStatusCache.evictAfterCommit(user.getEmail());
+        readYourWrites.pinAfterCommit();
         return userRepository.save(user);
     }
 
     @Transactional
     public void deleteUser(Long id) {
         User user = findById(id);
+        // Reservations are removed with the user, so drop them from the overlap index too
+        if (user.getReservations() != null) {
+            user.getReservations().forEach(r -> intervalIndex.removeAfterCommit(r.getId(), r.getRoom().getId()));
+        }
+        archivedReservationRepository.deleteByUserId(id);
         userRepository.delete(user);
+        userStatusCache.evictAfterCommit(user.getEmail());
+        readYourWrites.pinAfterCommit();
     }
 }
\ No newline at end of file
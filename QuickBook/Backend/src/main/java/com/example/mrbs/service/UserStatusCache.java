@@ -0,0 +1,105 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.model.User.UserRole;
+import com.example.mrbs.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of each user's current role, or of the user being gone, used to check that a
+ * token still matches the account it was issued for. The database is asked at most once per user
+ * per {@code security.jwt.user-status-ttl}; changes made on this instance take effect immediately.
+ */
+@Component
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    // Least recently used users are dropped first once maxEntries is reached
+    private final Map<String, Status> statuses;
+    // Bumped by every eviction, so a load that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserStatusCache(UserRepository userRepository, MeterRegistry registry,
+                           @Value("${security.jwt.user-status-ttl:60s}") Duration ttl,
+                           @Value("${security.jwt.user-status-max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.statuses = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Status> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.hits = requests(registry, "hit");
+        this.misses = requests(registry, "miss");
+    }
+
+    /**
+     * The user's role, or empty when no such user exists any more.
+     */
+    public Optional<UserRole> currentRole(String email) {
+        long now = System.nanoTime();
+        Status status = statuses.get(email);
+        if (status == null || now - status.loadedAtNanos() >= ttlNanos) {
+            misses.increment();
+            long loadedAt = generation.get();
+            status = new Status(userRepository.findRoleByEmail(email).orElse(null), now);
+            // An eviction since the read may mean the role just read is already stale
+            synchronized (statuses) {
+                if (generation.get() == loadedAt) {
+                    statuses.put(email, status);
+                }
+            }
+        } else {
+            hits.increment();
+        }
+        return Optional.ofNullable(status.role());
+    }
+
+    public void evictAfterCommit(String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(email);
+                }
+            });
+        } else {
+            evict(email);
+        }
+    }
+
+    private void evict(String email) {
+        synchronized (statuses) {
+            generation.incrementAndGet();
+            statuses.remove(email);
+        }
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("user.status.cache.requests")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record Status(UserRole role, long loadedAtNanos) {
+    }
+}
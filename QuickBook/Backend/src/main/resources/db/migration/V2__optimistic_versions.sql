@@ -0,0 +1,3 @@
+-- Version columns for optimistic locking; existing rows start at 0
+ALTER TABLE meeting_rooms ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE reservations ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Overlap checks, room schedules and the per-room interval loads: equality on room and status, range on time
+CREATE INDEX idx_reservations_room_status_time ON reservations (room_id, status, start_time, end_time);
+
+-- A user's reservations, and the user_id lookups done when a user is deleted
+CREATE INDEX idx_reservations_user_start ON reservations (user_id, start_time);
+
+-- Completion sweep and the interval index rebuild: all confirmed reservations ending after a point in time
+CREATE INDEX idx_reservations_status_end ON reservations (status, end_time);
+
+-- Rooms by location
+CREATE INDEX idx_meeting_rooms_location ON meeting_rooms (location, capacity);
@@ -0,0 +1,7 @@
+-- One row per coordinated @Scheduled job: the node currently allowed to run it and until when
+CREATE TABLE scheduled_job_leases (
+    job_name    VARCHAR(200) NOT NULL,
+    owner       VARCHAR(200) NOT NULL,
+    lease_until DATETIME     NOT NULL,
+    PRIMARY KEY (job_name)
+);
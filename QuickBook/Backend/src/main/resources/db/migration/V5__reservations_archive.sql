@@ -0,0 +1,21 @@
+-- Completed and cancelled reservations past the archive horizon, moved out of the hot table.
+-- Rows keep their original id; users and rooms stay referenced so history cannot dangle.
+CREATE TABLE reservations_archive (
+    id          BIGINT       NOT NULL,
+    user_id     BIGINT       NOT NULL,
+    room_id     BIGINT       NOT NULL,
+    title       VARCHAR(255) NOT NULL,
+    start_time  DATETIME(6)  NOT NULL,
+    end_time    DATETIME(6)  NOT NULL,
+    amenities   TEXT,
+    status      VARCHAR(255),
+    created_at  DATETIME(6),
+    version     BIGINT       NOT NULL DEFAULT 0,
+    archived_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reservations_archive_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_reservations_archive_room FOREIGN KEY (room_id) REFERENCES meeting_rooms (id)
+);
+
+CREATE INDEX idx_reservations_archive_room_start ON reservations_archive (room_id, start_time);
+CREATE INDEX idx_reservations_archive_user_start ON reservations_archive (user_id, start_time);
@@ -0,0 +1,10 @@
+-- One-time passwords shared by all instances; only a hash of the code is stored
+CREATE TABLE otp_codes (
+    email      VARCHAR(255) NOT NULL,
+    code_hash  VARCHAR(64)  NOT NULL,
+    expires_at DATETIME     NOT NULL,
+    attempts   INT          NOT NULL DEFAULT 0,
+    PRIMARY KEY (email)
+);
+
+CREATE INDEX idx_otp_codes_expires ON otp_codes (expires_at);
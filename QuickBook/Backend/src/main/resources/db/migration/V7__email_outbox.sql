@@ -0,0 +1,18 @@
+-- Mail waiting to be sent by EmailDispatcher; rows are deleted once delivered or expired.
+-- Rows name a template and carry its parameters encrypted (OutboxCipher), never the rendered body.
+CREATE TABLE email_outbox (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    template        VARCHAR(64)  NOT NULL,
+    params          TEXT         NOT NULL,
+    status          VARCHAR(16)  NOT NULL DEFAULT 'pending',
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6)  NOT NULL,
+    expires_at      DATETIME(6),
+    last_error      VARCHAR(512),
+    created_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_email_outbox_due ON email_outbox (status, next_attempt_at);
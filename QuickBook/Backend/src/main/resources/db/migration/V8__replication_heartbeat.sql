@@ -0,0 +1,8 @@
+-- Stamped by the primary so replicas' lag can be read from their copy of the row
+CREATE TABLE replication_heartbeat (
+    id      INT         NOT NULL,
+    beat_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, LOCALTIMESTAMP(3));
@@ -0,0 +1,96 @@
+package com.example.mrbs.config;
+
+import com.example.mrbs.dto.SignupRequest;
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.UserRepository;
+import com.example.mrbs.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTest {
+
+    private static final String EMAIL = "token@jadeglobal.com";
+    private static final String ROLE_LOOKUP = "SELECT u.role FROM User u WHERE u.email = :email";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userService.createUser(new SignupRequest("Token", EMAIL, "secret123", null));
+
+        UserDetails userDetails = userService.loadUserByUsername(EMAIL);
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findById(user.getId()).ifPresent(u -> userService.deleteUser(u.getId()));
+    }
+
+    @Test
+    void looksUpTheUserAtMostOncePerTtl() throws Exception {
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/users/profile").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+        assertThat(statistics.getQueryStatistics(ROLE_LOOKUP).getExecutionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsTokensIssuedBeforeARoleChange() throws Exception {
+        mockMvc.perform(get("/api/users/profile").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        userService.updateUserRole(user.getId(), "admin");
+
+        mockMvc.perform(get("/api/users/profile").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void rejectsTokensOfDeletedUsers() throws Exception {
+        mockMvc.perform(get("/api/users/profile").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        userService.deleteUser(user.getId());
+
+        mockMvc.perform(get("/api/users/profile").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+}
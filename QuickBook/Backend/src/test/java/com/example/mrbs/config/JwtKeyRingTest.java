@@ -0,0 +1,109 @@
+package com.example.mrbs.config;
+
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTest {
+
+    private static final String EMAIL = "ring@jadeglobal.com";
+
+    @TempDir
+    Path keys;
+
+    @Test
+    void tokensFromOneInstanceVerifyOnAnother() throws IOException {
+        writeHmac("k1");
+        String token = provider("k1", false).generateToken(login());
+
+        JwtTokenProvider readNode = provider("", true);
+        assertThat(readNode.getUsernameFromToken(token)).isEqualTo(EMAIL);
+        assertThatThrownBy(() -> readNode.generateToken(login())).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rotationKeepsOlderTokensValidUntilTheirKeyIsRemoved() throws IOException {
+        writeHmac("k1");
+        String oldToken = provider("k1", false).generateToken(login());
+
+        writeHmac("k2");
+        JwtTokenProvider rotated = provider("k2", false);
+        String newToken = rotated.generateToken(login());
+        assertThat(rotated.getUsernameFromToken(oldToken)).isEqualTo(EMAIL);
+        assertThat(rotated.getUsernameFromToken(newToken)).isEqualTo(EMAIL);
+
+        Files.delete(keys.resolve("k1.hmac"));
+        JwtTokenProvider retired = provider("k2", false);
+        assertThatThrownBy(() -> retired.verify(oldToken)).isInstanceOf(SignatureException.class);
+        assertThat(retired.getUsernameFromToken(newToken)).isEqualTo(EMAIL);
+    }
+
+    @Test
+    void reloadDropsCachedTokensOfRemovedKeys() throws IOException {
+        writeHmac("k1");
+        writeHmac("k2");
+        String token = provider("k1", false).generateToken(login());
+        JwtKeyRing ring = new JwtKeyRing(keys.toString(), "k2", false);
+        JwtTokenProvider provider = provider(ring);
+        provider.verify(token);
+
+        Files.delete(keys.resolve("k1.hmac"));
+        ring.reload();
+
+        assertThatThrownBy(() -> provider.verify(token)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void asymmetricKeysLetReadNodesVerifyWithThePublicKeyOnly() throws IOException, NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair pair = generator.generateKeyPair();
+        writePem("rsa1.private.pem", "PRIVATE KEY", pair.getPrivate().getEncoded());
+        writePem("rsa1.public.pem", "PUBLIC KEY", pair.getPublic().getEncoded());
+        String token = provider("rsa1", false).generateToken(login());
+
+        Files.delete(keys.resolve("rsa1.private.pem"));
+        assertThat(provider("", true).getUsernameFromToken(token)).isEqualTo(EMAIL);
+    }
+
+    private JwtTokenProvider provider(String activeKid, boolean verifyOnly) {
+        return provider(new JwtKeyRing(keys.toString(), activeKid, verifyOnly));
+    }
+
+    private static JwtTokenProvider provider(JwtKeyRing ring) {
+        JwtTokenProvider provider = new JwtTokenProvider(ring, new SimpleMeterRegistry(), 100);
+        return provider;
+    }
+
+    private static UsernamePasswordAuthenticationToken login() {
+        UserDetails userDetails = User.withUsername(EMAIL).password("").roles("employee").build();
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private void writeHmac(String kid) throws IOException {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        Files.writeString(keys.resolve(kid + ".hmac"), Base64.getEncoder().encodeToString(secret));
+    }
+
+    private void writePem(String file, String type, byte[] der) throws IOException {
+        Files.writeString(keys.resolve(file), "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder().encodeToString(der) + "\n-----END " + type + "-----\n");
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.mrbs.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenProviderTest {
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider(JwtKeyRing.ephemeral(), new SimpleMeterRegistry(), 100);
+        UserDetails userDetails = User.withUsername("cache@jadeglobal.com").password("").roles("employee").build();
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    @Test
+    void repeatVerificationsReuseTheParsedClaims() {
+        assertThat(tokenProvider.verify(token)).isSameAs(tokenProvider.verify(token));
+        assertThat(tokenProvider.getUsernameFromToken(token)).isEqualTo("cache@jadeglobal.com");
+        assertThat(tokenProvider.getAuthorities(tokenProvider.verify(token)))
+                .extracting(Object::toString).containsExactly("ROLE_employee");
+    }
+
+    @Test
+    void aFullCacheDropsOnlyTheLeastRecentlyUsedToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(JwtKeyRing.ephemeral(), new SimpleMeterRegistry(), 2);
+        String first = tokenFor(provider, "first@jadeglobal.com");
+        String second = tokenFor(provider, "second@jadeglobal.com");
+        Claims firstClaims = provider.verify(first);
+        Claims secondClaims = provider.verify(second);
+        provider.verify(first);
+
+        provider.verify(tokenFor(provider, "third@jadeglobal.com"));
+
+        assertThat(provider.verify(first)).isSameAs(firstClaims);
+        assertThat(provider.verify(second)).isNotSameAs(secondClaims);
+    }
+
+    @Test
+    void tamperedTokensAreVerifiedEvenWhenTheOriginalIsCached() {
+        tokenProvider.verify(token);
+        String[] parts = token.split("\\.");
+        char last = parts[2].charAt(0);
+        String tampered = parts[0] + "." + parts[1] + "." + (last == 'A' ? 'B' : 'A') + parts[2].substring(1);
+
+        assertThatThrownBy(() -> tokenProvider.verify(tampered)).isInstanceOf(SignatureException.class);
+    }
+
+    private static String tokenFor(JwtTokenProvider provider, String email) {
+        UserDetails userDetails = User.withUsername(email).password("").roles("employee").build();
+        return provider.generateToken(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.mrbs.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the old path, which parsed and verified the
+ * token three times with a freshly built parser each time, against one parse with the shared
+ * parser and against the verified-token cache.
+ * <p>
+ * Run with {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath com.example.mrbs.config.JwtVerificationBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private JwtKeyRing keyRing;
+    private JwtTokenProvider tokenProvider;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        keyRing = JwtKeyRing.ephemeral();
+        tokenProvider = new JwtTokenProvider(keyRing, new SimpleMeterRegistry(), 10000);
+        userDetails = User.withUsername("bench@jadeglobal.com").password("").roles("employee").build();
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    @Benchmark
+    public boolean threeParsesWithNewParsers() {
+        String username = legacyParse().getSubject();
+        return username.equals(userDetails.getUsername())
+                && legacyParse().getSubject().equals(userDetails.getUsername())
+                && !legacyParse().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return tokenProvider.parse(token);
+    }
+
+    @Benchmark
+    public Claims cachedVerify() {
+        return tokenProvider.verify(token);
+    }
+
+    private Claims legacyParse() {
+        return Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.mrbs.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+class QueryMetricsFilterTest {
+
+    private static final String BY_ID = "select * from meeting_rooms where id=?";
+
+    @Test
+    void headersReportTheStatementsOfTheRequest() throws Exception {
+        QueryMetricsFilter filter = filter(10, 3, true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/rooms"), response, statements(BY_ID, BY_ID));
+
+        assertThat(response.getHeader(QueryMetricsFilter.STATEMENTS_HEADER)).isEqualTo("2");
+        assertThat(response.getHeader(QueryMetricsFilter.TIME_HEADER)).isNotBlank();
+        assertThat(response.getContentAsString()).as("body is passed on").isEqualTo("[]");
+    }
+
+    @Test
+    void headersAreOffByDefault() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/rooms");
+
+        filter(10, 3, false).doFilter(request, response, statements(BY_ID));
+
+        assertThat(response.getHeader(QueryMetricsFilter.STATEMENTS_HEADER)).isNull();
+        assertThat(((RequestQueryStats) request.getAttribute(RequestQueryStats.ATTRIBUTE)).statements()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsOverBudgetAreLogged(CapturedOutput output) throws Exception {
+        QueryMetricsFilter filter = filter(2, 5, false);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/rooms"), new MockHttpServletResponse(),
+                statements(BY_ID, BY_ID));
+        assertThat(output).doesNotContain("SQL statements");
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/rooms"), new MockHttpServletResponse(),
+                statements(BY_ID, BY_ID, "select * from users"));
+        assertThat(output).contains("ran 3 SQL statements").doesNotContain("N+1");
+    }
+
+    @Test
+    void repeatedStatementsAreReportedAsLikelyNPlusOne(CapturedOutput output) throws Exception {
+        filter(20, 3, false).doFilter(new MockHttpServletRequest("GET", "/api/rooms"), new MockHttpServletResponse(),
+                statements("select * from users", BY_ID, BY_ID, BY_ID));
+
+        assertThat(output).contains("likely N+1").contains("3 times: " + BY_ID);
+    }
+
+    private static QueryMetricsFilter filter(int statementBudget, int repeatThreshold, boolean headers) {
+        return new QueryMetricsFilter(new SimpleMeterRegistry(), statementBudget, Duration.ofSeconds(5),
+                repeatThreshold, headers);
+    }
+
+    // Stands in for the data source listener and the controller writing its response
+    private static FilterChain statements(String... sql) {
+        return (request, response) -> {
+            for (String statement : sql) {
+                RequestQueryStats.current().statementStarted();
+                RequestQueryStats.current().statementFinished(statement);
+            }
+            response.getWriter().write("[]");
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.mrbs.config;
+
+import com.example.mrbs.repository.MeetingRoomRepository;
+import com.example.mrbs.repository.UserRepository;
+import com.example.mrbs.service.MeetingRoomService;
+import com.example.mrbs.service.RoomCatalogCache;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The replica is the test database itself, so it never lags
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "datasource.replica.urls=jdbc:h2:mem:quickbook;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource.replica.check-interval=3600000"
+})
+class ReplicaRoutingConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoSpyBean
+    private ReplicaRoutingDataSource routing;
+
+    @Autowired
+    private ReplicaLagMonitor monitor;
+
+    @Autowired
+    private MeetingRoomService roomService;
+
+    @Autowired
+    private RoomCatalogCache roomCatalogCache;
+
+    @Autowired
+    private MeetingRoomRepository roomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void replicasAreWiredBehindALazyProxy() throws SQLException {
+        assertThat(dataSource.isWrapperFor(LazyConnectionDataSourceProxy.class)).isTrue();
+        assertThat(routing.primary()).isInstanceOf(HikariDataSource.class);
+        assertThat(((HikariDataSource) routing.primary()).getPoolName()).isEqualTo("primary");
+
+        monitor.check();
+
+        assertThat(routing.replicas()).singleElement().satisfies(replica -> assertThat(replica.isHealthy()).isTrue());
+        roomCatalogCache.invalidate();
+        assertThat(roomService.findAvailableRooms()).isNotNull();
+    }
+
+    @Test
+    void annotatedRepositoryReadsAreRoutedToThePrimary() {
+        userRepository.findRoleByEmail("routing@jadeglobal.com");
+        verify(routing).requirePrimary(true);
+        verify(routing).requirePrimary(false);
+
+        clearInvocations(routing);
+        userRepository.findByEmail("routing@jadeglobal.com");
+        verify(routing, never()).requirePrimary(true);
+    }
+
+    @Test
+    @WithMockUser(username = "pins@jadeglobal.com", roles = "admin")
+    void writesOutsideBookingPinTheClientToo() throws Exception {
+        mockMvc.perform(post("/api/admin/rooms")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Pinned room\",\"location\":\"Hyderabad\",\"capacity\":4}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(ReadYourWritesPins.HEADER));
+        Long roomId = roomRepository.findAll().stream()
+                .filter(room -> room.getName().equals("Pinned room")).findFirst().orElseThrow().getId();
+
+        mockMvc.perform(delete("/api/admin/rooms/{id}", roomId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(ReadYourWritesPins.HEADER));
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.mrbs.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two embedded databases stand in for a primary and its replica; each knows its own name, so a
+ * query shows where it was routed. Replication is simulated by copying the heartbeat across.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String WHO = "SELECT name FROM whoami";
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReadYourWritesPins pins;
+    private ReplicaRoutingDataSource routing;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(database("routing_primary"));
+        replica = new JdbcTemplate(database("routing_replica"));
+        for (JdbcTemplate db : List.of(primary, replica)) {
+            db.execute("CREATE TABLE whoami (name VARCHAR(16))");
+            db.execute("CREATE TABLE replication_heartbeat (id INT PRIMARY KEY, beat_at DATETIME(3) NOT NULL)");
+            db.update("INSERT INTO replication_heartbeat VALUES (1, LOCALTIMESTAMP(3))");
+        }
+        primary.update("INSERT INTO whoami VALUES ('primary')");
+        replica.update("INSERT INTO whoami VALUES ('replica')");
+
+        pins = new ReadYourWritesPins(Duration.ofSeconds(10), true);
+        routing = new ReplicaRoutingDataSource(primary.getDataSource(),
+                List.of(replica.getDataSource()), pins);
+        routing.afterPropertiesSet();
+        monitor = new ReplicaLagMonitor(routing, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        primary.execute("DROP ALL OBJECTS");
+        replica.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToAnUpToDateReplica() {
+        assertThat(readOnlyRoute()).as("not yet checked").isEqualTo("primary");
+
+        monitor.check();
+
+        assertThat(readOnlyRoute()).isEqualTo("replica");
+        String written = readWrite.execute(status -> jdbcTemplate.queryForObject(WHO, String.class));
+        assertThat(written).isEqualTo("primary");
+        assertThat(jdbcTemplate.queryForObject(WHO, String.class)).as("outside a transaction").isEqualTo("primary");
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLags() {
+        primary.update("UPDATE replication_heartbeat SET beat_at = TIMESTAMPADD(SECOND, 60, beat_at)");
+        monitor.check();
+        assertThat(readOnlyRoute()).isEqualTo("primary");
+
+        // The replica catches up
+        Object beat = primary.queryForObject("SELECT beat_at FROM replication_heartbeat", Object.class);
+        replica.update("UPDATE replication_heartbeat SET beat_at = ?", beat);
+        monitor.check();
+        assertThat(readOnlyRoute()).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicasTakeNoReads() {
+        monitor.check();
+        replica.execute("DROP TABLE replication_heartbeat");
+
+        monitor.check();
+
+        assertThat(readOnlyRoute()).isEqualTo("primary");
+    }
+
+    @Test
+    void clientsReadTheirOwnWritesFromThePrimary() {
+        monitor.check();
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        onRequest(new MockHttpServletRequest(), writeResponse);
+
+        readWrite.executeWithoutResult(status -> pins.pinAfterCommit());
+
+        assertThat(readOnlyRoute()).as("later in the same request").isEqualTo("primary");
+        String pin = writeResponse.getHeader(ReadYourWritesPins.HEADER);
+        assertThat(pin).isNotNull();
+
+        // The client's next request may reach any instance, and carries the pin there
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.addHeader(ReadYourWritesPins.HEADER, pin);
+        onRequest(next, new MockHttpServletResponse());
+        assertThat(readOnlyRoute()).isEqualTo("primary");
+
+        onRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+        assertThat(readOnlyRoute()).as("another client").isEqualTo("replica");
+    }
+
+    @Test
+    void expiredOrForgedPinsAreIgnored() {
+        monitor.check();
+        long now = System.currentTimeMillis();
+        for (String pin : List.of(String.valueOf(now - 1), String.valueOf(now + Duration.ofDays(1).toMillis()), "soon")) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader(ReadYourWritesPins.HEADER, pin);
+            onRequest(request, new MockHttpServletResponse());
+
+            assertThat(readOnlyRoute()).as(pin).isEqualTo("replica");
+        }
+    }
+
+    @Test
+    void rolledBackWritesDoNotPin() {
+        monitor.check();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        onRequest(new MockHttpServletRequest(), response);
+
+        readWrite.executeWithoutResult(status -> {
+            pins.pinAfterCommit();
+            status.setRollbackOnly();
+        });
+
+        assertThat(readOnlyRoute()).isEqualTo("replica");
+        assertThat(response.getHeader(ReadYourWritesPins.HEADER)).isNull();
+    }
+
+    @Test
+    void annotatedReadsGoToThePrimary() {
+        monitor.check();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Reads(this::readOnlyRoute));
+        factory.addAspect(new PrimaryReadRouting(routing));
+        Reads reads = factory.getProxy();
+
+        assertThat(reads.annotated()).isEqualTo("primary");
+        assertThat(reads.plain()).isEqualTo("replica");
+        assertThat(routing.isPrimaryRequired()).isFalse();
+    }
+
+    static class Reads {
+
+        private final Supplier<String> route;
+
+        Reads(Supplier<String> route) {
+            this.route = route;
+        }
+
+        @ReadFromPrimary
+        public String annotated() {
+            return route.get();
+        }
+
+        public String plain() {
+            return route.get();
+        }
+    }
+
+    private static void onRequest(MockHttpServletRequest request, MockHttpServletResponse response) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    private String readOnlyRoute() {
+        return readOnly.execute(status -> jdbcTemplate.queryForObject(WHO, String.class));
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
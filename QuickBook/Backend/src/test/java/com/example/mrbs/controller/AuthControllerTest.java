@@ -0,0 +1,57 @@
+package com.example.mrbs.controller;
+
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class AuthControllerTest {
+
+    private static final String EMAIL = "rehash@jadeglobal.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByEmail(EMAIL).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void loginRehashesPasswordsStoredWithAnOutdatedCost() throws Exception {
+        User user = new User();
+        user.setName("Rehash");
+        user.setEmail(EMAIL);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret123"));
+        userRepository.save(user);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + EMAIL + "\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+
+        String stored = userRepository.findByEmail(EMAIL).orElseThrow().getPassword();
+        assertThat(stored).doesNotStartWith("$2a$04$");
+        assertThat(passwordEncoder.upgradeEncoding(stored)).isFalse();
+        assertThat(passwordEncoder.matches("secret123", stored)).isTrue();
+    }
+}
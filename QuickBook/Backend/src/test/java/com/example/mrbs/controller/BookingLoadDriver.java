@@ -0,0 +1,227 @@
+package com.example.mrbs.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load against a running instance: each client repeatedly checks room availability,
+ * asks for the next free slots and books a random half hour, and the driver reports throughput and
+ * latency per endpoint. Reservations it made are cancelled at the end, but it is still best run
+ * against a scratch database.
+ * <p>
+ * To compare execution modes, start the application once with the default profile and once with
+ * {@code --spring.profiles.active=virtual-threads}, then run against each with the same
+ * arguments, e.g. {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath com.example.mrbs.controller.BookingLoadDriver http://localhost:8080
+ * load@jadeglobal.com secret 400 60"}. The arguments are base URL, login, password, concurrent clients
+ * and seconds to run; the account must be able to book rooms.
+ */
+public class BookingLoadDriver {
+
+    private static final List<String> ENDPOINTS = List.of("available", "next-available", "book");
+
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private final Queue<Long> booked = new ConcurrentLinkedQueue<>();
+
+    private String token;
+    private List<Long> roomIds;
+
+    BookingLoadDriver(String baseUrl) {
+        this.baseUrl = baseUrl;
+        ENDPOINTS.forEach(endpoint -> stats.put(endpoint, new Stats()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("Usage: BookingLoadDriver <base-url> <email> <password> <clients> <seconds>");
+            System.exit(1);
+        }
+        BookingLoadDriver driver = new BookingLoadDriver(args[0]);
+        driver.login(args[1], args[2]);
+        driver.run(Integer.parseInt(args[3]), Duration.ofSeconds(Long.parseLong(args[4])));
+        driver.report(Long.parseLong(args[4]));
+        driver.cancelBookings();
+    }
+
+    void login(String email, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("email", email, "password", password))));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+        }
+        token = mapper.readTree(response.body()).get("token").asText();
+
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode room : mapper.readTree(send(authorized("/api/rooms").GET()).body())) {
+            ids.add(room.get("id").asLong());
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No rooms to book");
+        }
+        roomIds = ids;
+    }
+
+    void run(int clients, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    iteration();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+    }
+
+    private void iteration() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)
+                .plusHours(1 + random.nextInt(24 * 30))
+                .plusMinutes(30L * random.nextInt(2));
+        LocalDateTime end = start.plusMinutes(30);
+
+        timed("available", authorized("/api/rooms/available?startTime=" + start + "&endTime=" + end).GET());
+        timed("next-available", authorized("/api/rooms/next-available?durationMinutes=30&from=" + start
+                + "&to=" + start.plusDays(1)).GET());
+
+        Map<String, Object> booking = Map.of(
+                "roomId", roomIds.get(random.nextInt(roomIds.size())),
+                "title", "Load test",
+                "startTime", start,
+                "endTime", end);
+        HttpResponse<String> response = timed("book", authorized("/api/users/reservations")
+                .header("Content-Type", "application/json")
+                .POST(json(booking)));
+        if (response != null && response.statusCode() == 200) {
+            try {
+                booked.add(mapper.readTree(response.body()).get("id").asLong());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private HttpResponse<String> timed(String endpoint, HttpRequest.Builder request) {
+        Stats endpointStats = stats.get(endpoint);
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(request);
+            endpointStats.record(System.nanoTime() - started, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            endpointStats.record(System.nanoTime() - started, -1);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    void report(long seconds) {
+        System.out.printf("%-16s %10s %9s %9s %9s %9s %8s %8s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "2xx", "4xx", "other");
+        stats.forEach((endpoint, s) -> {
+            List<Long> latencies = s.sortedLatencies();
+            System.out.printf("%-16s %10d %9.1f %9.1f %9.1f %9.1f %8d %8d %8d%n", endpoint, latencies.size(),
+                    latencies.size() / (double) seconds, percentile(latencies, 50), percentile(latencies, 95),
+                    percentile(latencies, 99), s.ok.get(), s.clientErrors.get(), s.otherErrors.get());
+        });
+    }
+
+    void cancelBookings() {
+        for (Long id : booked) {
+            try {
+                send(authorized("/api/users/reservations/" + id).DELETE());
+            } catch (IOException e) {
+                System.err.println("Could not cancel reservation " + id + ": " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static double percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    private static final class Stats {
+
+        final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        final AtomicLong ok = new AtomicLong();
+        final AtomicLong clientErrors = new AtomicLong();
+        final AtomicLong otherErrors = new AtomicLong();
+
+        void record(long nanos, int status) {
+            latencies.add(nanos);
+            if (status >= 200 && status < 300) {
+                ok.incrementAndGet();
+            } else if (status >= 400 && status < 500) {
+                clientErrors.incrementAndGet();
+            } else {
+                otherErrors.incrementAndGet();
+            }
+        }
+
+        List<Long> sortedLatencies() {
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted;
+        }
+    }
+}
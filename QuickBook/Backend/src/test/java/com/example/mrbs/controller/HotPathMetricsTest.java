@@ -0,0 +1,149 @@
+package com.example.mrbs.controller;
+
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.MeetingRoomRepository;
+import com.example.mrbs.repository.ReservationRepository;
+import com.example.mrbs.repository.UserRepository;
+import com.example.mrbs.service.RoomCatalogCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.anonymous;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.observations.annotations.enabled=true",
+        "management.endpoints.web.exposure.include=health,metrics,prometheus",
+        // No SMTP server runs here, and the health check below is about access, not mail
+        "management.health.mail.enabled=false",
+        "management.metrics.distribution.percentiles-histogram.booking.create=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@WithMockUser(username = HotPathMetricsTest.EMAIL, roles = "employee")
+class HotPathMetricsTest {
+
+    static final String EMAIL = "metrics@jadeglobal.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeetingRoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomCatalogCache catalogCache;
+
+    private Long roomId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("Metrics");
+        user.setEmail(EMAIL);
+        user.setPassword("hash");
+        userRepository.save(user);
+
+        MeetingRoom room = new MeetingRoom();
+        room.setName("Metrics room");
+        room.setLocation(MeetingRoom.RoomLocation.Hyderabad);
+        room.setCapacity(4);
+        roomId = roomRepository.save(room).getId();
+        catalogCache.invalidate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        userRepository.deleteAll();
+        catalogCache.invalidate();
+    }
+
+    @Test
+    void bookingsRecordLatencyConflictsAndStatements() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.HOURS);
+        String body = """
+                {"roomId": %d, "title": "Metrics", "startTime": "%s", "endTime": "%s"}
+                """.formatted(roomId, start, start.plusHours(1));
+        double conflictsBefore = conflicts();
+
+        mockMvc.perform(post("/api/users/reservations").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/users/reservations").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict());
+
+        // The conflict is recorded under its own exception tag
+        assertThat(registry.get("booking.create").tag("exception", "none").timer().count()).isPositive();
+        assertThat(registry.get("booking.create").tag("exception", "RoomNotAvailableException").timer().count()).isPositive();
+        assertThat(conflicts() - conflictsBefore).isEqualTo(1);
+        var statements = registry.get("http.server.requests.db.statements")
+                .tag("uri", "/api/users/reservations")
+                .summary();
+        assertThat(statements.count()).isGreaterThanOrEqualTo(2);
+        assertThat(statements.totalAmount()).isPositive();
+        assertThat(registry.get("auth.jwt.filter").tag("outcome", "anonymous").timer().count()).isPositive();
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").with(user(EMAIL).roles("admin")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape).contains("booking_create_seconds_bucket", "hikaricp_connections_acquire_seconds");
+    }
+
+    @Test
+    void onlyAdminsReadMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(user(EMAIL).roles("admin"))).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health").with(anonymous())).andExpect(status().isOk());
+    }
+
+    @Test
+    void availabilitySearchesAreTimed() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.HOURS);
+        long before = searches();
+
+        mockMvc.perform(get("/api/rooms/available")
+                        .param("startTime", start.toString())
+                        .param("endTime", start.plusHours(1).toString()))
+                .andExpect(status().isOk());
+
+        assertThat(searches() - before).isEqualTo(1);
+    }
+
+    private double conflicts() {
+        var counter = registry.find("booking.conflicts").tag("kind", "single").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private long searches() {
+        var timer = registry.find("room.availability.search").timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.mrbs.controller;
+
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.Reservation;
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.MeetingRoomRepository;
+import com.example.mrbs.repository.ReservationRepository;
+import com.example.mrbs.repository.UserRepository;
+import com.example.mrbs.service.RoomCatalogCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "occupancy@jadeglobal.com", roles = "employee")
+class OccupancyMatrixTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeetingRoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomCatalogCache catalogCache;
+
+    private final LocalDateTime nine = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusHours(9);
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Occupancy");
+        user.setEmail("occupancy@jadeglobal.com");
+        user.setPassword("hash");
+        userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        userRepository.deleteAll();
+        catalogCache.invalidate();
+    }
+
+    @Test
+    void mapsEachRoomOfTheLocationToFreeAndBusyRuns() throws Exception {
+        MeetingRoom morning = room("Morning", MeetingRoom.RoomLocation.Hyderabad);
+        MeetingRoom noon = room("Noon", MeetingRoom.RoomLocation.Hyderabad);
+        MeetingRoom elsewhere = room("Elsewhere", MeetingRoom.RoomLocation.Pune_Baner);
+        // Covers part of 10:00-10:30, so that slot is busy as well
+        book(morning, nine.plusMinutes(30), nine.plusMinutes(75), Reservation.ReservationStatus.confirmed);
+        book(morning, nine.plusHours(2), nine.plusHours(3), Reservation.ReservationStatus.cancelled);
+        // Ends on the window's end and starts on a slot boundary
+        book(noon, nine.plusHours(2), nine.plusHours(3), Reservation.ReservationStatus.confirmed);
+        book(elsewhere, nine, nine.plusHours(3), Reservation.ReservationStatus.confirmed);
+        catalogCache.invalidate();
+
+        mockMvc.perform(get("/api/rooms/occupancy")
+                        .param("location", "Hyderabad")
+                        .param("from", nine.toString())
+                        .param("to", nine.plusHours(3).toString())
+                        .param("slotMinutes", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.slots").value(6))
+                .andExpect(jsonPath("$.rooms.length()").value(2))
+                .andExpect(jsonPath("$.rooms[?(@.name == 'Morning')].runs[*]", contains(1, 2, 3)))
+                .andExpect(jsonPath("$.rooms[?(@.name == 'Noon')].runs[*]", contains(4, 2)));
+    }
+
+    @Test
+    void roomsWithoutReservationsAreOneFreeRun() throws Exception {
+        room("Empty", MeetingRoom.RoomLocation.Hyderabad);
+        catalogCache.invalidate();
+
+        mockMvc.perform(get("/api/rooms/occupancy")
+                        .param("from", nine.toString())
+                        .param("to", nine.plusMinutes(50).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.slotMinutes").value(15))
+                // A partial last slot still counts
+                .andExpect(jsonPath("$.slots").value(4))
+                .andExpect(jsonPath("$.rooms[0].runs[*]", contains(4)));
+    }
+
+    @Test
+    void rejectsRangesWithTooManySlots() throws Exception {
+        mockMvc.perform(get("/api/rooms/occupancy")
+                        .param("from", nine.toString())
+                        .param("to", nine.plusDays(40).toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/rooms/occupancy")
+                        .param("from", nine.toString())
+                        .param("to", nine.plusHours(1).toString())
+                        .param("slotMinutes", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MeetingRoom room(String name, MeetingRoom.RoomLocation location) {
+        MeetingRoom room = new MeetingRoom();
+        room.setName(name);
+        room.setLocation(location);
+        room.setCapacity(6);
+        return roomRepository.save(room);
+    }
+
+    private void book(MeetingRoom room, LocalDateTime start, LocalDateTime end, Reservation.ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setRoom(room);
+        reservation.setTitle("Busy");
+        reservation.setStartTime(start);
+        reservation.setEndTime(end);
+        reservation.setStatus(status);
+        reservationRepository.save(reservation);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.mrbs.controller;
+
+import com.example.mrbs.model.Feedback;
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.Reservation;
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.FeedbackRepository;
+import com.example.mrbs.repository.MeetingRoomRepository;
+import com.example.mrbs.repository.ReservationRepository;
+import com.example.mrbs.repository.UserRepository;
+import com.example.mrbs.service.RoomCatalogCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every read endpoint issues a fixed number of SQL statements, however many rows it returns.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@WithMockUser(username = ReadEndpointStatementCountTest.EMAIL, roles = "admin")
+class ReadEndpointStatementCountTest {
+
+    static final String EMAIL = "reader0@jadeglobal.com";
+
+    private static final int USERS = 3;
+    private static final int ROOMS = 4;
+    private static final int RESERVATIONS_PER_ROOM_AND_USER = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeetingRoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private RoomCatalogCache catalogCache;
+
+    private Statistics statistics;
+    private Long roomId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Rooms below are saved through the repository, which does not invalidate the catalog
+        catalogCache.invalidate();
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setName("Reader " + i);
+            user.setEmail("reader" + i + "@jadeglobal.com");
+            user.setPassword("hash");
+            users.add(userRepository.save(user));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        for (int r = 0; r < ROOMS; r++) {
+            MeetingRoom room = new MeetingRoom();
+            room.setName("Reading room " + r);
+            room.setLocation(MeetingRoom.RoomLocation.Hyderabad);
+            room.setCapacity(6);
+            room = roomRepository.save(room);
+            roomId = room.getId();
+            int slot = 0;
+            for (User user : users) {
+                for (int i = 0; i < RESERVATIONS_PER_ROOM_AND_USER; i++) {
+                    Reservation reservation = new Reservation();
+                    reservation.setUser(user);
+                    reservation.setRoom(room);
+                    reservation.setTitle("Sync " + slot);
+                    reservation.setStartTime(start.plusHours(slot));
+                    reservation.setEndTime(start.plusHours(slot++).plusMinutes(30));
+                    reservationRepository.save(reservation);
+
+                    Feedback feedback = new Feedback();
+                    feedback.setComment("Fine");
+                    feedback.setRating(4);
+                    feedback.setUser(user);
+                    feedback.setReservation(reservation);
+                    feedbackRepository.save(feedback);
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        feedbackRepository.deleteAll();
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        userRepository.deleteAll();
+        catalogCache.invalidate();
+    }
+
+    @Test
+    void roomEndpoints() throws Exception {
+        LocalDateTime from = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.HOURS);
+        assertStatements("/api/rooms", 1);
+        // The rest of the catalog is served from the cache
+        assertStatements("/api/rooms", 0);
+        assertStatements("/api/rooms/" + roomId, 0);
+        assertStatements("/api/rooms/location/Hyderabad", 0);
+        assertStatements("/api/rooms/capacity/2", 0);
+        // Without a range the schedule also reads the archive
+        assertStatements("/api/rooms/" + roomId + "/schedule", 2);
+        assertStatements("/api/rooms/" + roomId + "/schedule?fromDate=" + from.minusDays(1) + "&toDate=" + from, 1);
+        assertStatements("/api/rooms/next-available?durationMinutes=30&from=" + from + "&to=" + from.plusDays(1), 1);
+        assertStatements("/api/rooms/occupancy?from=" + from + "&to=" + from.plusDays(1), 1);
+    }
+
+    @Test
+    void userEndpoints() throws Exception {
+        assertStatements("/api/users", 1);
+        assertStatements("/api/users/profile", 1);
+        assertStatements("/api/users/reservations", 1);
+        assertStatements("/api/users/my_reservations", 2);
+        LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        assertStatements("/api/users/my_reservations?fromDate=" + from + "&toDate=" + from.plusDays(3), 1);
+        assertStatements("/api/users/feedback/room/" + roomId, 1);
+        assertStatements("/api/users/feedback/my", 2);
+        assertStatements("/api/users/feedback/my?limit=2", 2);
+        assertStatements("/api/users/feedback/room/" + roomId + "?limit=2", 1);
+    }
+
+    @Test
+    void adminEndpoints() throws Exception {
+        assertStatements("/api/admin/users", 1);
+        assertStatements("/api/admin/users/" + userRepository.findByEmail(EMAIL).orElseThrow().getId(), 1);
+        assertStatements("/api/admin/rooms", 1);
+        assertStatements("/api/admin/reservations", 1);
+        assertStatements("/api/admin/reservations?status=confirmed&roomId=" + roomId, 1);
+        assertStatements("/api/admin/reservations/room/" + roomId, 2);
+        assertStatements("/api/admin/feedbacks", 1);
+    }
+
+    private void assertStatements(String url, int expected) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                // At the JDBC level too, which also sees statements issued outside Hibernate
+                .andExpect(StatementBudget.exactly(expected))
+                .andExpect(StatementBudget.noStatementRepeatedMoreThan(1));
+        assertThat(statistics.getPrepareStatementCount()).as(url).isEqualTo(expected);
+    }
+}
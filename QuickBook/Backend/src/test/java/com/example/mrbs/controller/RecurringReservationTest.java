@@ -0,0 +1,188 @@
+package com.example.mrbs.controller;
+
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.Reservation;
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.MeetingRoomRepository;
+import com.example.mrbs.repository.ReservationRepository;
+import com.example.mrbs.repository.UserRepository;
+import com.example.mrbs.service.RoomCatalogCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "booking.bulk.max-occurrences=10")
+@AutoConfigureMockMvc
+@WithMockUser(username = RecurringReservationTest.EMAIL, roles = "employee")
+class RecurringReservationTest {
+
+    static final String EMAIL = "recurring@jadeglobal.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeetingRoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomCatalogCache catalogCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long roomId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("Recurring");
+        user.setEmail(EMAIL);
+        user.setPassword("hash");
+        userRepository.save(user);
+
+        MeetingRoom room = new MeetingRoom();
+        room.setName("Weekly room");
+        room.setLocation(MeetingRoom.RoomLocation.Hyderabad);
+        room.setCapacity(4);
+        roomId = roomRepository.save(room).getId();
+        catalogCache.invalidate();
+        start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusHours(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        userRepository.deleteAll();
+        catalogCache.invalidate();
+    }
+
+    @Test
+    void expandsTheRuleIntoOneReservationPerOccurrence() throws Exception {
+        recurring("\"frequency\": \"WEEKLY\", \"interval\": 2, \"occurrences\": 3")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.booked").value(3))
+                .andExpect(jsonPath("$.occurrences[2].startTime").value(start.plusWeeks(4) + ":00"));
+
+        assertThat(reservationRepository.findByRoomId(roomId))
+                .extracting(Reservation::getStartTime)
+                .containsExactlyInAnyOrder(start, start.plusWeeks(2), start.plusWeeks(4));
+
+        recurring("\"frequency\": \"DAILY\", \"until\": \"%s\"".formatted(start.toLocalDate().plusDays(2)), start.plusHours(2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booked").value(3));
+    }
+
+    @Test
+    void conflictingOccurrencesAreReportedAndTheRestBooked() throws Exception {
+        book(start.plusDays(1));
+
+        recurring("\"frequency\": \"DAILY\", \"occurrences\": 3")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booked").value(2))
+                .andExpect(jsonPath("$.conflicts").value(1))
+                .andExpect(jsonPath("$.occurrences[1].status").value("conflict"))
+                .andExpect(jsonPath("$.occurrences[2].status").value("booked"));
+
+        assertThat(reservationRepository.findByRoomId(roomId)).hasSize(3);
+    }
+
+    @Test
+    void allOrNothingBooksNothingOnAConflict() throws Exception {
+        book(start.plusDays(2));
+
+        recurring("\"frequency\": \"DAILY\", \"occurrences\": 3, \"allOrNothing\": true")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.booked").value(0))
+                .andExpect(jsonPath("$.occurrences[0].status").value("skipped"))
+                .andExpect(jsonPath("$.occurrences[2].status").value("conflict"));
+
+        assertThat(reservationRepository.findByRoomId(roomId)).hasSize(1);
+    }
+
+    @Test
+    void rulesBeyondTheLimitsAreRejected() throws Exception {
+        recurring("\"frequency\": \"DAILY\", \"occurrences\": 11")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("At most 10")));
+        recurring("\"frequency\": \"DAILY\", \"until\": \"%s\"".formatted(start.toLocalDate().plusDays(10)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("At most 10")));
+        recurring("\"frequency\": \"DAILY\"")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("occurrences or until")));
+        recurring("\"frequency\": \"DAILY\", \"interval\": 0, \"occurrences\": 2")
+                .andExpect(status().isBadRequest());
+
+        assertThat(reservationRepository.findByRoomId(roomId)).isEmpty();
+    }
+
+    @Test
+    void batchedRowsMatchRowsSavedThroughJpa() throws Exception {
+        Long single = book(start);
+        recurring("\"frequency\": \"DAILY\", \"occurrences\": 1", start.plusHours(2)).andExpect(status().isOk());
+        Long batched = reservationRepository.findByRoomId(roomId).stream()
+                .map(Reservation::getId).filter(id -> !id.equals(single)).findFirst().orElseThrow();
+
+        Map<String, Object> jpaRow = row(single);
+        Map<String, Object> batchRow = row(batched);
+        for (String column : jpaRow.keySet()) {
+            if (jpaRow.get(column) != null) {
+                assertThat(batchRow.get(column)).as(column).isNotNull();
+            }
+        }
+        for (String column : List.of("user_id", "room_id", "title", "status", "version")) {
+            assertThat(batchRow.get(column)).as(column).isEqualTo(jpaRow.get(column));
+        }
+    }
+
+    private Long book(LocalDateTime at) throws Exception {
+        mockMvc.perform(post("/api/users/reservations").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"roomId": %d, "title": "Sync", "startTime": "%s", "endTime": "%s"}
+                        """.formatted(roomId, at, at.plusMinutes(30))))
+                .andExpect(status().isOk());
+        return reservationRepository.findByRoomId(roomId).stream()
+                .filter(r -> r.getStartTime().equals(at)).findFirst().orElseThrow().getId();
+    }
+
+    private ResultActions recurring(String rule) throws Exception {
+        return recurring(rule, start);
+    }
+
+    private ResultActions recurring(String rule, LocalDateTime from) throws Exception {
+        return mockMvc.perform(post("/api/users/reservations/recurring").contentType(MediaType.APPLICATION_JSON).content("""
+                {"roomId": %d, "title": "Sync", "startTime": "%s", "endTime": "%s", %s}
+                """.formatted(roomId, from, from.plusMinutes(30), rule)));
+    }
+
+    private Map<String, Object> row(Long id) {
+        return jdbcTemplate.queryForMap("SELECT * FROM reservations WHERE id = ?", id);
+    }
+}
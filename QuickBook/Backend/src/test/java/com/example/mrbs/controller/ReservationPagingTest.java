@@ -0,0 +1,178 @@
+package com.example.mrbs.controller;
+
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.Reservation;
+import com.example.mrbs.model.Reservation.ReservationStatus;
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.MeetingRoomRepository;
+import com.example.mrbs.repository.ReservationRepository;
+import com.example.mrbs.repository.UserRepository;
+import com.example.mrbs.service.RoomCatalogCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = ReservationPagingTest.EMAIL, roles = "admin")
+class ReservationPagingTest {
+
+    static final String EMAIL = "paging@jadeglobal.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeetingRoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomCatalogCache catalogCache;
+
+    private MeetingRoom room;
+
+    // Confirmed reservations of room, newest first: what the filtered list must return
+    private final List<Long> expected = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("Paging");
+        user.setEmail(EMAIL);
+        user.setPassword("hash");
+        user.setRole(User.UserRole.admin);
+        user = userRepository.save(user);
+
+        room = roomRepository.save(room("Paged room"));
+        MeetingRoom other = roomRepository.save(room("Other room"));
+        catalogCache.invalidate();
+
+        // Interleaved, so the filter has rows to skip on every page
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        for (int i = 0; i < 17; i++) {
+            LocalDateTime slot = start.plusHours(i);
+            expected.add(save(user, room, slot, ReservationStatus.confirmed).getId());
+            save(user, other, slot, ReservationStatus.confirmed);
+            if (i % 5 == 0) {
+                save(user, room, slot.plusMinutes(30), ReservationStatus.cancelled);
+            }
+        }
+        expected.sort(Comparator.reverseOrder());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        userRepository.deleteAll();
+        catalogCache.invalidate();
+    }
+
+    @Test
+    void filteredPagesFollowTheCursorWithoutDuplicatesOrGaps() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = filtered(7);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MockHttpServletResponse response = mockMvc.perform(request)
+                    .andExpect(status().isOk()).andReturn().getResponse();
+            List<Long> ids = ids(response);
+            pageSizes.add(ids.size());
+            seen.addAll(ids);
+            cursor = response.getHeader(Pagination.NEXT_CURSOR_HEADER);
+            if (cursor != null) {
+                assertThat(Long.valueOf(cursor)).as("cursor is the last id of the page").isEqualTo(ids.get(ids.size() - 1));
+            }
+        } while (cursor != null && pageSizes.size() < 10);
+
+        assertThat(pageSizes).containsExactly(7, 7, 3);
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void aLastPageThatIsExactlyFullHasNoCursor() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(filtered(expected.size()))
+                .andExpect(status().isOk()).andReturn().getResponse();
+
+        assertThat(ids(response)).containsExactlyElementsOf(expected);
+        assertThat(response.getHeader(Pagination.NEXT_CURSOR_HEADER)).isNull();
+    }
+
+    @Test
+    void limitsAreClampedToOneThroughTwoHundred() throws Exception {
+        MockHttpServletResponse smallest = mockMvc.perform(filtered(0))
+                .andExpect(status().isOk()).andReturn().getResponse();
+        assertThat(ids(smallest)).containsExactly(expected.get(0));
+        assertThat(smallest.getHeader(Pagination.NEXT_CURSOR_HEADER)).isEqualTo(expected.get(0).toString());
+
+        MockHttpServletResponse largest = mockMvc.perform(filtered(1000))
+                .andExpect(status().isOk()).andReturn().getResponse();
+        assertThat(ids(largest)).containsExactlyElementsOf(expected);
+        assertThat(largest.getHeader(Pagination.NEXT_CURSOR_HEADER)).isNull();
+    }
+
+    private MockHttpServletRequestBuilder filtered(int limit) {
+        return get("/api/admin/reservations")
+                .param("roomId", room.getId().toString())
+                .param("status", "confirmed")
+                .param("limit", String.valueOf(limit));
+    }
+
+    private List<Long> ids(MockHttpServletResponse response) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode reservation : objectMapper.readTree(response.getContentAsString())) {
+            ids.add(reservation.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private Reservation save(User user, MeetingRoom room, LocalDateTime start, ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setRoom(room);
+        reservation.setTitle("Paging");
+        reservation.setStartTime(start);
+        reservation.setEndTime(start.plusMinutes(30));
+        reservation.setStatus(status);
+        return reservationRepository.save(reservation);
+    }
+
+    private static MeetingRoom room(String name) {
+        MeetingRoom room = new MeetingRoom();
+        room.setName(name);
+        room.setLocation(MeetingRoom.RoomLocation.Hyderabad);
+        room.setCapacity(4);
+        return room;
+    }
+}
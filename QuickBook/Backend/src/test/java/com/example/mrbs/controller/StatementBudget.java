@@ -0,0 +1,49 @@
+package com.example.mrbs.controller;
+
+import com.example.mrbs.config.RequestQueryStats;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc expectations on the SQL statements a request ran, as counted by the query metrics
+ * filter, e.g. {@code mockMvc.perform(get("/api/rooms")).andExpect(StatementBudget.exactly(1))}.
+ */
+final class StatementBudget {
+
+    private StatementBudget() {
+    }
+
+    static ResultMatcher exactly(int statements) {
+        return result -> assertThat(stats(result).statements())
+                .as("SQL statements for %s", uri(result))
+                .isEqualTo(statements);
+    }
+
+    /**
+     * Fails when one statement ran more than {@code times} times, the usual sign of an N+1.
+     */
+    static ResultMatcher noStatementRepeatedMoreThan(int times) {
+        return result -> {
+            Map.Entry<String, Integer> repeated = stats(result).mostRepeated();
+            if (repeated != null) {
+                assertThat(repeated.getValue())
+                        .as("executions of %s for %s", repeated.getKey(), uri(result))
+                        .isLessThanOrEqualTo(times);
+            }
+        };
+    }
+
+    private static RequestQueryStats stats(MvcResult result) {
+        Object stats = result.getRequest().getAttribute(RequestQueryStats.ATTRIBUTE);
+        assertThat(stats).as("statement statistics; is the query metrics filter registered?").isNotNull();
+        return (RequestQueryStats) stats;
+    }
+
+    private static String uri(MvcResult result) {
+        return result.getRequest().getRequestURI();
+    }
+}
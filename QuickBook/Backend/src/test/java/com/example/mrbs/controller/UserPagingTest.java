@@ -0,0 +1,106 @@
+package com.example.mrbs.controller;
+
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "paged.admin@jadeglobal.com", roles = "admin")
+class UserPagingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Users whose email starts with "paged.", newest first: what the filtered list must return
+    private final List<Long> expected = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            expected.add(save("paged." + i + "@jadeglobal.com").getId());
+            save("other." + i + "@kanverse.com");
+        }
+        expected.sort(Comparator.reverseOrder());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void theUserListIsPagedByCursor() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/users").param("email", "paged.").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MockHttpServletResponse response = mockMvc.perform(request)
+                    .andExpect(status().isOk()).andReturn().getResponse();
+            JsonNode users = objectMapper.readTree(response.getContentAsString());
+            pageSizes.add(users.size());
+            for (JsonNode user : users) {
+                seen.add(user.get("id").asLong());
+            }
+            cursor = response.getHeader(Pagination.NEXT_CURSOR_HEADER);
+        } while (cursor != null && pageSizes.size() < 10);
+
+        assertThat(pageSizes).containsExactly(2, 2, 1);
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void roleChangesAnswerWithTheUserResponse() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(put("/api/admin/users/" + expected.get(0) + "/role")
+                        .param("role", "admin"))
+                .andExpect(status().isOk()).andReturn().getResponse();
+
+        JsonNode user = objectMapper.readTree(response.getContentAsString());
+        assertThat(user.get("role").asText()).isEqualTo("admin");
+        assertThat(fieldNames(user)).containsExactlyInAnyOrder("id", "name", "email", "role", "createdAt");
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private User save(String email) {
+        User user = new User();
+        user.setName("Paged");
+        user.setEmail(email);
+        user.setPassword("hash");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.mrbs.controller;
+
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.Reservation;
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.MeetingRoomRepository;
+import com.example.mrbs.repository.ReservationRepository;
+import com.example.mrbs.repository.UserRepository;
+import com.example.mrbs.service.RoomCatalogCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = VersionConflictTest.EMAIL, roles = "admin")
+class VersionConflictTest {
+
+    static final String EMAIL = "versions@jadeglobal.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeetingRoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomCatalogCache catalogCache;
+
+    private Long roomId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("Versions");
+        user.setEmail(EMAIL);
+        user.setPassword("hash");
+        user.setRole(User.UserRole.admin);
+        userRepository.save(user);
+
+        MeetingRoom room = new MeetingRoom();
+        room.setName("Versioned room");
+        room.setLocation(MeetingRoom.RoomLocation.Hyderabad);
+        room.setCapacity(4);
+        roomRepository.save(room);
+        // Persisted in place rather than merged into a copy, which a preset version would cause
+        roomId = room.getId();
+        catalogCache.invalidate();
+        start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        userRepository.deleteAll();
+        catalogCache.invalidate();
+    }
+
+    @Test
+    void newEntitiesStartAtVersionZeroAndEachUpdateBumpsIt() throws Exception {
+        assertThat(roomId).isNotNull();
+        assertThat(roomRepository.findById(roomId).orElseThrow().getVersion()).isZero();
+        mockMvc.perform(post("/api/users/reservations").contentType(MediaType.APPLICATION_JSON).content(body(start, null)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0));
+        Long id = onlyReservation().getId();
+
+        mockMvc.perform(put("/api/users/reservations/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content(body(start.plusHours(1), 0L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void aStaleReservationVersionIsRejectedWithTheCurrentCopy() throws Exception {
+        mockMvc.perform(post("/api/users/reservations").contentType(MediaType.APPLICATION_JSON).content(body(start, null)))
+                .andExpect(status().isOk());
+        Long id = onlyReservation().getId();
+        mockMvc.perform(put("/api/users/reservations/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content(body(start.plusHours(1), 0L)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/users/reservations/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content(body(start.plusHours(2), 0L)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.current.version").value(1))
+                .andExpect(jsonPath("$.current.startTime").value(start.plusHours(1).toString() + ":00"));
+
+        assertThat(onlyReservation().getStartTime()).isEqualTo(start.plusHours(1));
+    }
+
+    @Test
+    void aStaleRoomVersionIsRejected() throws Exception {
+        String room = """
+                {"name": "Renamed", "location": "Hyderabad", "capacity": 6, "version": %d}
+                """;
+        mockMvc.perform(put("/api/admin/rooms/" + roomId).contentType(MediaType.APPLICATION_JSON).content(room.formatted(0)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/admin/rooms/" + roomId).contentType(MediaType.APPLICATION_JSON).content(room.formatted(0)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.current.version").value(1));
+    }
+
+    private Reservation onlyReservation() {
+        return reservationRepository.findByRoomId(roomId).get(0);
+    }
+
+    private String body(LocalDateTime from, Long version) {
+        return """
+                {"roomId": %d, "title": "Versioned", "startTime": "%s", "endTime": "%s", "version": %s}
+                """.formatted(roomId, from, from.plusMinutes(30), version);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.mrbs.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A database created before migrations existed is baselined at V1, as in application.properties,
+ * and must end up with the same schema as one migrated from scratch.
+ */
+@SpringBootTest
+class PreSeriesMigrationTest {
+
+    private static final String COLUMNS = """
+            SELECT table_name, column_name, data_type, is_nullable, column_default
+            FROM information_schema.columns
+            WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history'
+            ORDER BY table_name, column_name
+            """;
+
+    @Autowired
+    private JdbcTemplate migratedFromScratch;
+
+    private final DataSource preSeries = new DriverManagerDataSource(
+            "jdbc:h2:mem:pre-series;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(preSeries).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void baselinedDatabasesReceiveEveryLaterSchemaChange() throws SQLException {
+        try (Connection connection = preSeries.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/pre-series-schema.sql"));
+        }
+
+        Flyway.configure()
+                .dataSource(preSeries)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        JdbcTemplate baselined = new JdbcTemplate(preSeries);
+        List<Map<String, Object>> columns = baselined.queryForList(COLUMNS);
+        assertThat(columns).isEqualTo(migratedFromScratch.queryForList(COLUMNS));
+        // Existing rows stay usable by the entities
+        assertThat(baselined.queryForObject("SELECT version FROM reservations", Long.class)).isZero();
+        assertThat(baselined.queryForObject("SELECT version FROM meeting_rooms", Long.class)).isZero();
+    }
+}
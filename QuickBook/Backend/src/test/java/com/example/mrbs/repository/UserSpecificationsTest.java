@@ -0,0 +1,53 @@
+package com.example.mrbs.repository;
+
+import com.example.mrbs.dto.UserFilter;
+import com.example.mrbs.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserSpecificationsTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (String email : List.of("ana_k@jadeglobal.com", "anak@jadeglobal.com", "100%ana@jadeglobal.com",
+                "1000ana@jadeglobal.com")) {
+            User user = new User();
+            user.setName(email);
+            user.setEmail(email);
+            user.setPassword("hash");
+            userRepository.save(user);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void emailSearchMatchesWildcardCharactersLiterally() {
+        assertThat(emails("ana_")).containsExactly("ana_k@jadeglobal.com");
+        assertThat(emails("100%")).containsExactly("100%ana@jadeglobal.com");
+        assertThat(emails("_")).isEmpty();
+        assertThat(emails("%")).isEmpty();
+        assertThat(emails("bang!")).as("the escape character itself").isEmpty();
+        assertThat(emails("ana")).containsExactlyInAnyOrder("ana_k@jadeglobal.com", "anak@jadeglobal.com");
+    }
+
+    private List<String> emails(String prefix) {
+        UserFilter filter = new UserFilter();
+        filter.setEmail(prefix);
+        return userRepository.findAll(UserSpecifications.matching(filter, null)).stream().map(User::getEmail).toList();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.mrbs.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class EmailDispatcherTest {
+
+    private static final String EMAIL = "outbox@jadeglobal.com";
+    // src/test/resources/mail/note.html
+    private static final String NOTE = "note";
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private OtpService otpService;
+
+    @Autowired
+    private EmailOutbox emailOutbox;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private MailTemplates templates;
+
+    @Autowired
+    private OutboxCipher cipher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.getJdbcTemplate().update("DELETE FROM email_outbox");
+        jdbcTemplate.getJdbcTemplate().update("DELETE FROM otp_codes WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    void otpRequestsQueueTheMailInsteadOfSendingIt() throws Exception {
+        String otp = otpService.generateOtp(EMAIL);
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        assertThat(outboxSize()).isEqualTo(1);
+        Map<String, Object> queued = jdbcTemplate.getJdbcTemplate().queryForMap("SELECT * FROM email_outbox");
+        assertThat(queued).containsEntry("template", "otp");
+        assertThat(queued.values()).as("the code is not stored in the clear")
+                .noneMatch(value -> String.valueOf(value).contains(otp));
+
+        assertThat(emailDispatcher.dispatch()).isEqualTo(1);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo(EMAIL);
+        assertThat(GreenMailUtil.getBody(received[0])).contains(otp);
+        assertThat(outboxSize()).isZero();
+    }
+
+    @Test
+    void batchesGoOutTogether() {
+        for (int i = 0; i < 7; i++) {
+            emailOutbox.enqueue("outbox" + i + "@jadeglobal.com", "Batch " + i, NOTE, Map.of("text", i), Duration.ofMinutes(5));
+        }
+
+        assertThat(emailDispatcher.dispatch()).isEqualTo(7);
+        assertThat(greenMail.getReceivedMessages()).hasSize(7);
+    }
+
+    @Test
+    void failedSendsBackOffAndEventuallyGiveUp() {
+        JavaMailSenderImpl unreachable = new JavaMailSenderImpl();
+        unreachable.setHost("localhost");
+        unreachable.setPort(ServerSetupTest.SMTP.getPort() + 1);
+        EmailDispatcher dispatcher = dispatcher(unreachable, cipher, 2);
+        emailOutbox.enqueue(EMAIL, "Retry", NOTE, Map.of("text", "retry"), Duration.ofMinutes(5));
+
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(row()).containsEntry("status", "pending").containsEntry("attempts", 1);
+        assertThat(dispatcher.dispatch()).as("not due until the backoff passes").isZero();
+        assertThat(row()).containsEntry("attempts", 1);
+
+        jdbcTemplate.getJdbcTemplate().update("UPDATE email_outbox SET next_attempt_at = LOCALTIMESTAMP");
+        dispatcher.dispatch();
+        assertThat(row()).containsEntry("status", "failed").containsEntry("attempts", 2);
+        assertThat(emailDispatcher.dispatch()).as("failed mail is not retried").isZero();
+    }
+
+    @Test
+    void mailSealedWithAnotherKeyIsNotSent() {
+        MockEnvironment dev = new MockEnvironment();
+        dev.setActiveProfiles("dev");
+        OutboxCipher otherKey = new OutboxCipher("", dev);
+        EmailDispatcher dispatcher = dispatcher(new JavaMailSenderImpl(), otherKey, 1);
+        emailOutbox.enqueue(EMAIL, "Unreadable", NOTE, Map.of("text", "secret"), Duration.ofMinutes(5));
+
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(row()).containsEntry("status", "failed");
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void claimedMailIsNotSentByAnotherNode() {
+        JavaMailSender sender = mockSender();
+        AtomicInteger sentElsewhere = new AtomicInteger(-1);
+        doAnswer(invocation -> {
+            // Another node polls while this one is still talking to the SMTP server
+            sentElsewhere.set(emailDispatcher.dispatch());
+            return null;
+        }).when(sender).send(any(MimeMessage[].class));
+        emailOutbox.enqueue(EMAIL, "Claimed", NOTE, Map.of("text", "once"), Duration.ofMinutes(5));
+
+        assertThat(dispatcher(sender, cipher, 5).dispatch()).isEqualTo(1);
+        assertThat(sentElsewhere).hasValue(0);
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        assertThat(outboxSize()).isZero();
+    }
+
+    @Test
+    void abortedBatchesRetryOnlyTheMailNotYetSent() {
+        JavaMailSender sender = mockSender();
+        doAnswer(invocation -> {
+            // One message goes out, then reconnecting for the other is refused
+            for (Object argument : invocation.getArguments()) {
+                MimeMessage message = (MimeMessage) argument;
+                if (message.getAllRecipients()[0].toString().equals("sent@jadeglobal.com")) {
+                    message.setSentDate(new Date());
+                }
+            }
+            throw new MailAuthenticationException("reconnect refused");
+        }).when(sender).send(any(MimeMessage[].class));
+        emailOutbox.enqueue("sent@jadeglobal.com", "First", NOTE, Map.of("text", 1), Duration.ofMinutes(5));
+        emailOutbox.enqueue(EMAIL, "Second", NOTE, Map.of("text", 2), Duration.ofMinutes(5));
+
+        assertThat(dispatcher(sender, cipher, 5).dispatch()).isEqualTo(1);
+        assertThat(outboxSize()).isEqualTo(1);
+        assertThat(row()).containsEntry("status", "pending").containsEntry("attempts", 1);
+    }
+
+    @Test
+    void missingKeyFailsStartupOutsideDevAndTest() {
+        assertThatIllegalStateException()
+                .isThrownBy(() -> new OutboxCipher(" ", new MockEnvironment()))
+                .withMessageContaining("mail.outbox.key");
+    }
+
+    @Test
+    void expiredMailIsDroppedUnsent() {
+        emailOutbox.enqueue(EMAIL, "Expired", NOTE, Map.of("text", "too late"), Duration.ZERO);
+
+        assertThat(emailDispatcher.dispatch()).isZero();
+        assertThat(outboxSize()).isZero();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    private EmailDispatcher dispatcher(JavaMailSender sender, OutboxCipher cipher, int maxAttempts) {
+        return new EmailDispatcher(sender, jdbcTemplate, transactionManager, templates, cipher, objectMapper,
+                new SimpleMeterRegistry(), "quickbook@localhost", 50, 10, maxAttempts, Duration.ofSeconds(30),
+                Duration.ofMinutes(10), Duration.ofMinutes(10));
+    }
+
+    private static JavaMailSender mockSender() {
+        JavaMailSender sender = mock(JavaMailSender.class);
+        when(sender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        return sender;
+    }
+
+    private int outboxSize() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM email_outbox", Integer.class);
+    }
+
+    private Map<String, Object> row() {
+        return jdbcTemplate.getJdbcTemplate().queryForMap("SELECT status, attempts FROM email_outbox WHERE recipient = ?", EMAIL);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.mrbs.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimerWheelTest {
+
+    private static final long TICK = 1000;
+    private static final int BUCKETS = 8;
+
+    @Test
+    void returnsKeysOnlyOnceTheirDeadlinePasses() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(TICK, BUCKETS, 0);
+        wheel.schedule(1L, 2500);
+        wheel.schedule(2L, 4000);
+
+        assertThat(wheel.advance(2000)).isEmpty();
+        assertThat(wheel.advance(2499)).isEmpty();
+        assertThat(wheel.advance(2500)).containsExactly(1L);
+        assertThat(wheel.advance(3999)).isEmpty();
+        assertThat(wheel.advance(4000)).containsExactly(2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void keepsDeadlinesMoreThanOneRotationAway() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(TICK, BUCKETS, 0);
+        long farAway = (BUCKETS * 3 + 2) * TICK;
+        wheel.schedule(1L, farAway);
+
+        for (long now = TICK; now < farAway; now += TICK) {
+            assertThat(wheel.advance(now)).as("at %d", now).isEmpty();
+        }
+        assertThat(wheel.advance(farAway)).containsExactly(1L);
+    }
+
+    @Test
+    void reschedulingReplacesAndCancellingRemoves() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(TICK, BUCKETS, 0);
+        wheel.schedule(1L, 2000);
+        wheel.schedule(1L, 5000);
+        wheel.schedule(2L, 3000);
+        wheel.cancel(2L);
+
+        assertThat(wheel.advance(4000)).isEmpty();
+        assertThat(wheel.advance(5000)).containsExactly(1L);
+    }
+
+    @Test
+    void pastDeadlinesAndLongPausesAreCaughtUp() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(TICK, BUCKETS, 10_000);
+        wheel.schedule(1L, 500);
+        wheel.schedule(2L, 12_000);
+        wheel.schedule(3L, 15_500);
+
+        assertThat(wheel.advance(10_000)).containsExactly(1L);
+        // Far more than one rotation passes without a tick
+        assertThat(wheel.advance(60_000)).containsExactlyInAnyOrder(2L, 3L);
+    }
+}
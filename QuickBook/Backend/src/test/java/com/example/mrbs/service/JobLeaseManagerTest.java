@@ -0,0 +1,75 @@
+package com.example.mrbs.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class JobLeaseManagerTest {
+
+    private static final String JOB = "JobLeaseManagerTest.job";
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM scheduled_job_leases WHERE job_name = ?", JOB);
+    }
+
+    @Test
+    void onlyOneNodeHoldsALease() {
+        JobLeaseManager first = new JobLeaseManager(jdbcTemplate, "node-a");
+        JobLeaseManager second = new JobLeaseManager(jdbcTemplate, "node-b");
+
+        assertThat(first.acquire(JOB, TTL)).isTrue();
+        assertThat(second.acquire(JOB, TTL)).isFalse();
+        assertThat(first.tryAcquire(JOB, TTL)).as("holder renews").isTrue();
+        assertThat(second.tryAcquire(JOB, TTL)).isFalse();
+    }
+
+    @Test
+    void anotherNodeTakesOverOnceTheLeaseExpires() {
+        JobLeaseManager first = new JobLeaseManager(jdbcTemplate, "node-a");
+        JobLeaseManager second = new JobLeaseManager(jdbcTemplate, "node-b");
+        assertThat(first.tryAcquire(JOB, TTL)).isTrue();
+
+        // The holder stopped renewing
+        jdbcTemplate.update("UPDATE scheduled_job_leases SET lease_until = TIMESTAMPADD(SECOND, -1, LOCALTIMESTAMP)"
+                + " WHERE job_name = ?", JOB);
+
+        assertThat(second.tryAcquire(JOB, TTL)).isTrue();
+        assertThat(first.tryAcquire(JOB, TTL)).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT owner FROM scheduled_job_leases WHERE job_name = ?",
+                String.class, JOB)).isEqualTo("node-b");
+    }
+
+    @Test
+    void scheduledJobsRunUnderALease() throws InterruptedException {
+        String sql = "SELECT COUNT(*) FROM scheduled_job_leases WHERE job_name = ?";
+        for (int i = 0; i < 50 && jdbcTemplate.queryForObject(sql, Integer.class, "ReservationLifecycleScheduler.reconcile") < 1; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(jdbcTemplate.queryForObject(sql, Integer.class, "ReservationLifecycleScheduler.reconcile")).isEqualTo(1);
+        // The tick is node-local, as each node completes what its own wheel holds
+        assertThat(jdbcTemplate.queryForObject(sql, Integer.class, "ReservationLifecycleScheduler.tick")).isZero();
+    }
+
+    @Test
+    void releasedLeasesAreFreeImmediately() {
+        JobLeaseManager first = new JobLeaseManager(jdbcTemplate, "node-a");
+        JobLeaseManager second = new JobLeaseManager(jdbcTemplate, "node-b");
+        assertThat(first.acquire(JOB, TTL)).isTrue();
+
+        first.releaseAll();
+
+        assertThat(second.acquire(JOB, TTL)).isTrue();
+    }
+}
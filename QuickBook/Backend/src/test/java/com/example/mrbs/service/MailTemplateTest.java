@@ -0,0 +1,26 @@
+package com.example.mrbs.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailTemplateTest {
+
+    @Test
+    void fillsAndEscapesPlaceholders() {
+        MailTemplate template = MailTemplate.compile("<p>{{greeting}}, {{name}}!</p>{{greeting}}");
+
+        assertThat(template.render(Map.of("greeting", "Hi", "name", "<Ann & Bo>")))
+                .isEqualTo("<p>Hi, &lt;Ann &amp; Bo&gt;!</p>Hi");
+    }
+
+    @Test
+    void missingValuesAreRejected() {
+        MailTemplate template = MailTemplate.compile("{{code}}");
+
+        assertThatThrownBy(() -> template.render(Map.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
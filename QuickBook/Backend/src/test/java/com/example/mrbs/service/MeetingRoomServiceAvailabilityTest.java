@@ -0,0 +1,93 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.ReservationDto;
+import com.example.mrbs.exception.RoomNotAvailableException;
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.Reservation;
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.MeetingRoomRepository;
+import com.example.mrbs.repository.ReservationRepository;
+import com.example.mrbs.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * With several nodes writing reservations (the default), availability is answered from this node's
+ * index, which learns of other nodes' bookings when it refreshes; booking still checks the database.
+ */
+@SpringBootTest
+class MeetingRoomServiceAvailabilityTest {
+
+    @Autowired
+    private MeetingRoomService roomService;
+
+    @Autowired
+    private RoomCatalogCache catalogCache;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationIntervalIndex intervalIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeetingRoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        userRepository.deleteAll();
+        catalogCache.invalidate();
+    }
+
+    @Test
+    void bookingsMadeOnAnotherNodeAreSeenAfterTheNextRefresh() {
+        MeetingRoom room = new MeetingRoom();
+        room.setName("Shared");
+        room.setLocation(MeetingRoom.RoomLocation.Hyderabad);
+        room.setCapacity(4);
+        room = roomRepository.save(room);
+        catalogCache.invalidate();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        assertThat(roomService.findAvailableRoomsForTimeSlot(start, start.plusMinutes(30)))
+                .extracting(MeetingRoom::getId).contains(room.getId());
+
+        User user = new User();
+        user.setName("Elsewhere");
+        user.setEmail("elsewhere@jadeglobal.com");
+        user.setPassword("hash");
+        Reservation reservation = new Reservation();
+        reservation.setUser(userRepository.save(user));
+        reservation.setRoom(room);
+        reservation.setTitle("Booked on another node");
+        reservation.setStartTime(start);
+        reservation.setEndTime(start.plusMinutes(30));
+        // Straight to the database, as another node would, so this node's index never hears of it
+        reservationRepository.save(reservation);
+
+        Long roomId = room.getId();
+        assertThatThrownBy(() -> reservationService.createReservation("elsewhere@jadeglobal.com",
+                new ReservationDto(roomId, "Double booking", start, start.plusMinutes(30), null, null)))
+                .as("booking checks the database").isInstanceOf(RoomNotAvailableException.class);
+
+        intervalIndex.refresh();
+
+        assertThat(roomService.findAvailableRoomsForTimeSlot(start, start.plusMinutes(30)))
+                .extracting(MeetingRoom::getId).doesNotContain(roomId);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.mrbs.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticRetryTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final OptimisticRetry retry = new OptimisticRetry(new NoOpTransactionManager());
+
+    OptimisticRetryTest() {
+        ReflectionTestUtils.setField(retry, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(retry, "backoffMillis", 1L);
+    }
+
+    @Test
+    void reRunsTheUnitUntilItCommits() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute(() -> {
+            if (attempts.incrementAndGet() < MAX_ATTEMPTS) {
+                throw lostVersionCheck();
+            }
+            return "saved";
+        });
+
+        assertThat(result).isEqualTo("saved");
+        assertThat(attempts).hasValue(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute(() -> {
+            attempts.incrementAndGet();
+            throw lostVersionCheck();
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void otherFailuresAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("Invalid status");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    private static ObjectOptimisticLockingFailureException lostVersionCheck() {
+        return new ObjectOptimisticLockingFailureException("Reservation", 1L);
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OtpStoreTest {
+
+    private static final String EMAIL = "otp@jadeglobal.com";
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final String KEY = "c2hhcmVkIGJ5IGV2ZXJ5IGluc3RhbmNlIG9mIHRoZSBhcHA=";
+    private static final String OTHER_KEY = "b25seSBvbmUgaW5zdGFuY2Uga25vd3MgdGhpcyBrZXkhIQ==";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM otp_codes WHERE email LIKE 'otp%'");
+    }
+
+    @Test
+    void codesAreSingleUse() {
+        for (OtpStore store : stores()) {
+            store.save(EMAIL, "123456", TTL);
+            assertThat(store.consume(EMAIL, "123456", 5)).isTrue();
+            assertThat(store.consume(EMAIL, "123456", 5)).isFalse();
+        }
+    }
+
+    @Test
+    void tooManyWrongGuessesDiscardTheCode() {
+        for (OtpStore store : stores()) {
+            store.save(EMAIL, "123456", TTL);
+            for (int i = 0; i < 3; i++) {
+                assertThat(store.consume(EMAIL, "000000", 3)).isFalse();
+            }
+            assertThat(store.consume(EMAIL, "123456", 3)).isFalse();
+
+            store.save(EMAIL, "654321", TTL);
+            assertThat(store.consume(EMAIL, "654321", 3)).as("a new code resets attempts").isTrue();
+        }
+    }
+
+    @Test
+    void expiredCodesAreRejectedAndSwept() {
+        for (OtpStore store : stores()) {
+            store.save(EMAIL, "123456", Duration.ZERO);
+            assertThat(store.consume(EMAIL, "123456", 5)).isFalse();
+
+            store.save("otp-other@jadeglobal.com", "123456", Duration.ZERO);
+            store.save("otp-live@jadeglobal.com", "123456", TTL);
+            assertThat(store.sweep()).isPositive();
+            assertThat(store.consume("otp-other@jadeglobal.com", "123456", 5)).isFalse();
+            assertThat(store.consume("otp-live@jadeglobal.com", "123456", 5)).as("live codes survive").isTrue();
+        }
+    }
+
+    @Test
+    void concurrentGuessesShareOneBudget() throws Exception {
+        for (OtpStore store : stores()) {
+            store.save(EMAIL, "123456", TTL);
+            List<Callable<Boolean>> guesses = IntStream.range(0, 20)
+                    .mapToObj(i -> (Callable<Boolean>) () -> store.consume(EMAIL, "123456", 5))
+                    .toList();
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                long accepted = 0;
+                for (Future<Boolean> guess : executor.invokeAll(guesses)) {
+                    accepted += guess.get() ? 1 : 0;
+                }
+                assertThat(accepted).isEqualTo(1);
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void jdbcStoreKeepsOnlyAKeyedHashOfTheCode() throws NoSuchAlgorithmException {
+        jdbcStore(KEY).save(EMAIL, "123456", TTL);
+
+        String stored = jdbcTemplate.queryForObject("SELECT code_hash FROM otp_codes WHERE email = ?", String.class, EMAIL);
+        assertThat(stored).hasSize(64).doesNotContain("123456")
+                .as("not the unkeyed digest").isNotEqualTo(sha256(EMAIL + "\n123456"));
+        assertThat(jdbcStore(OTHER_KEY).consume(EMAIL, "123456", 5)).as("an instance with another key").isFalse();
+        assertThat(jdbcStore(KEY).consume(EMAIL, "123456", 5)).as("another instance").isTrue();
+    }
+
+    @Test
+    void jdbcStoreNeedsAKeyOutsideDevAndTest() {
+        assertThatIllegalStateException()
+                .isThrownBy(() -> new JdbcOtpStore(jdbcTemplate, "", new MockEnvironment()))
+                .withMessageContaining("security.otp.hmac-key");
+    }
+
+    @Test
+    void memoryStoreRefusesNewCodesWhenFull() {
+        InMemoryOtpStore store = new InMemoryOtpStore(2);
+        store.save("otp-a@jadeglobal.com", "111111", TTL);
+        store.save("otp-b@jadeglobal.com", "222222", TTL);
+        store.save("otp-a@jadeglobal.com", "333333", TTL);
+
+        assertThatThrownBy(() -> store.save("otp-c@jadeglobal.com", "444444", TTL))
+                .isInstanceOf(ServiceBusyException.class);
+
+        assertThat(store.consume("otp-b@jadeglobal.com", "222222", 5)).isTrue();
+        store.save("otp-c@jadeglobal.com", "444444", TTL);
+    }
+
+    private List<OtpStore> stores() {
+        jdbcTemplate.update("DELETE FROM otp_codes WHERE email LIKE 'otp%'");
+        return List.of(new InMemoryOtpStore(100), jdbcStore(KEY));
+    }
+
+    private JdbcOtpStore jdbcStore(String key) {
+        return new JdbcOtpStore(jdbcTemplate, key, new MockEnvironment());
+    }
+
+    private static String sha256(String value) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+}
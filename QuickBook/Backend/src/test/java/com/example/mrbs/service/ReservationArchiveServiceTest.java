@@ -0,0 +1,116 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.ReservationResponse;
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.MeetingRoomRepository;
+import com.example.mrbs.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ReservationArchiveServiceTest {
+
+    private static final String EMAIL = "archive@jadeglobal.com";
+
+    @Autowired
+    private ReservationArchiveService archiveService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeetingRoomRepository roomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private MeetingRoom room;
+    private LocalDateTime old;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Archive");
+        user.setEmail(EMAIL);
+        user.setPassword("hash");
+        user = userRepository.save(user);
+
+        room = new MeetingRoom();
+        room.setName("Archive room");
+        room.setLocation(MeetingRoom.RoomLocation.Hyderabad);
+        room.setCapacity(4);
+        room = roomRepository.save(room);
+
+        old = archiveService.cutoff().minusDays(30).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM feedbacks WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM reservations WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM reservations_archive WHERE user_id = ?", user.getId());
+        roomRepository.delete(room);
+        userRepository.delete(user);
+    }
+
+    @Test
+    void movesOnlyFinishedReservationsPastTheHorizon() {
+        long completed = insert("completed", old);
+        long cancelled = insert("cancelled", old.plusHours(1));
+        long recent = insert("completed", LocalDateTime.now().minusDays(1));
+        long reviewed = insert("completed", old.plusHours(2));
+        jdbcTemplate.update("INSERT INTO feedbacks (comment, rating, user_id, reservation_id, created_at)"
+                + " VALUES ('Good', 5, ?, ?, ?)", user.getId(), reviewed, Timestamp.valueOf(old));
+
+        archiveService.archiveExpired();
+
+        assertThat(ids("SELECT id FROM reservations_archive WHERE user_id = ?")).containsExactlyInAnyOrder(completed, cancelled);
+        assertThat(ids("SELECT id FROM reservations WHERE user_id = ?")).containsExactlyInAnyOrder(recent, reviewed);
+    }
+
+    @Test
+    void historyReadsIncludeArchivedReservations() {
+        long archived = insert("completed", old);
+        long recent = insert("completed", LocalDateTime.now().minusDays(1));
+        archiveService.archiveExpired();
+
+        assertThat(responseIds(reservationService.findReservationsByRoom(room.getId()))).containsExactly(archived, recent);
+        assertThat(responseIds(reservationService.findUserReservations(EMAIL))).containsExactly(archived, recent);
+        assertThat(responseIds(reservationService.findReservationsByRoomAndDateRange(room.getId(),
+                old.minusDays(1), LocalDateTime.now()))).containsExactly(archived, recent);
+        assertThat(responseIds(reservationService.findUserReservationsByDateRange(EMAIL,
+                LocalDateTime.now().minusDays(2), LocalDateTime.now()))).containsExactly(recent);
+    }
+
+    private long insert(String status, LocalDateTime start) {
+        jdbcTemplate.update("INSERT INTO reservations (user_id, room_id, title, start_time, end_time, status, created_at, version)"
+                        + " VALUES (?, ?, 'Archived', ?, ?, ?, ?, 0)",
+                user.getId(), room.getId(), Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(30)),
+                status, Timestamp.valueOf(start));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM reservations", Long.class);
+    }
+
+    private List<Long> ids(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class, user.getId());
+    }
+
+    private static List<Long> responseIds(List<ReservationResponse> responses) {
+        return responses.stream().map(ReservationResponse::getId).toList();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.ReservationInterval;
+import com.example.mrbs.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReservationIntervalIndexTest {
+
+    private static final Long ROOM = 1L;
+    private static final Long OTHER_ROOM = 2L;
+
+    private final LocalDateTime nine = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusHours(9);
+
+    private final ReservationRepository repository = mock(ReservationRepository.class);
+    private final List<ReservationInterval> stored = new ArrayList<>();
+    private ReservationIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findConfirmedIntervalsEndingAfter(any())).thenAnswer(invocation -> List.copyOf(stored));
+        index = new ReservationIntervalIndex(repository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+    }
+
+    @Test
+    void boundariesFollowTheInclusiveDatabaseRule() {
+        stored.add(interval(10L, ROOM, nine, nine.plusHours(1)));
+        index.rebuild();
+
+        assertThat(index.hasOverlap(ROOM, nine.plusMinutes(15), nine.plusMinutes(45), null)).isTrue();
+        assertThat(index.hasOverlap(ROOM, nine.minusHours(1), nine, null)).as("ends as it starts").isTrue();
+        assertThat(index.hasOverlap(ROOM, nine.plusHours(1), nine.plusHours(2), null)).as("starts as it ends").isTrue();
+        assertThat(index.hasOverlap(ROOM, nine.minusHours(1), nine.minusMinutes(1), null)).isFalse();
+        assertThat(index.hasOverlap(ROOM, nine.plusHours(1).plusMinutes(1), nine.plusHours(2), null)).isFalse();
+        assertThat(index.hasOverlap(OTHER_ROOM, nine, nine.plusHours(1), null)).isFalse();
+        assertThat(index.hasOverlap(ROOM, nine, nine.plusHours(1), 10L)).as("a reservation never conflicts with itself").isFalse();
+    }
+
+    @Test
+    void longReservationsStartingWellBeforeTheWindowAreFound() {
+        stored.add(interval(10L, ROOM, nine, nine.plusHours(8)));
+        stored.add(interval(11L, ROOM, nine.plusHours(9), nine.plusHours(9).plusMinutes(30)));
+        index.rebuild();
+
+        assertThat(index.hasOverlap(ROOM, nine.plusHours(7), nine.plusHours(7).plusMinutes(30), null)).isTrue();
+        assertThat(index.intervalsBetween(ROOM, nine.plusHours(7), nine.plusHours(10)))
+                .extracting(ReservationInterval::getReservationId)
+                .containsExactly(10L, 11L);
+        assertThat(index.intervalsBetween(ROOM, nine.plusHours(10), nine.plusHours(9))).as("empty window").isEmpty();
+    }
+
+    @Test
+    void committedChangesMoveAndFreeSlots() {
+        stored.add(interval(10L, ROOM, nine, nine.plusHours(1)));
+        index.rebuild();
+
+        index.applyAfterCommit(interval(10L, OTHER_ROOM, nine, nine.plusHours(1)), true);
+        assertThat(index.hasOverlap(ROOM, nine, nine.plusHours(1), null)).as("moved out").isFalse();
+        assertThat(index.hasOverlap(OTHER_ROOM, nine, nine.plusHours(1), null)).as("moved in").isTrue();
+
+        index.removeAfterCommit(10L, OTHER_ROOM);
+        assertThat(index.hasOverlap(OTHER_ROOM, nine, nine.plusHours(1), null)).isFalse();
+        assertThat(index.allIntervals()).isEmpty();
+    }
+
+    @Test
+    void changesCommittedDuringARebuildAreNotLost() {
+        stored.add(interval(10L, ROOM, nine, nine.plusHours(1)));
+        index.rebuild();
+        when(repository.findConfirmedIntervalsEndingAfter(any())).thenAnswer(invocation -> {
+            List<ReservationInterval> snapshot = List.copyOf(stored);
+            // Committed after the snapshot was read, before the rebuilt map is swapped in
+            index.removeAfterCommit(10L, ROOM);
+            index.applyAfterCommit(interval(11L, ROOM, nine.plusHours(2), nine.plusHours(3)), true);
+            return snapshot;
+        });
+
+        index.rebuild();
+
+        assertThat(index.allIntervals()).extracting(ReservationInterval::getReservationId).containsExactly(11L);
+    }
+
+    @Test
+    void onlyCoversSlotsFromTheLastRebuildOn() {
+        assertThat(index.covers(nine)).as("not loaded yet").isFalse();
+
+        stored.add(interval(10L, ROOM, nine, nine.plusHours(1)));
+        index.rebuild();
+
+        assertThat(index.covers(nine)).isTrue();
+        assertThat(index.covers(LocalDateTime.now().minusHours(1))).isFalse();
+
+        ReflectionTestUtils.setField(index, "enabled", false);
+        assertThat(index.covers(nine)).isFalse();
+    }
+
+    @Test
+    void endedReservationsAreDroppedAndNoLongerCovered() {
+        stored.add(interval(10L, ROOM, nine, nine.plusHours(1)));
+        stored.add(interval(11L, ROOM, nine.plusHours(2), nine.plusHours(3)));
+        index.rebuild();
+        List<Long> changedRooms = new ArrayList<>();
+        index.addListener(new ReservationIntervalIndex.Listener() {
+            @Override
+            public void roomChanged(Long roomId) {
+                changedRooms.add(roomId);
+            }
+
+            @Override
+            public void rebuilt() {
+            }
+        });
+
+        index.removeEnded(List.of(10L, 11L), nine.plusHours(1));
+
+        assertThat(index.allIntervals()).extracting(ReservationInterval::getReservationId).containsExactly(11L);
+        assertThat(changedRooms).containsExactly(ROOM);
+        // Windows that could still overlap the dropped reservation now go to the database
+        assertThat(index.covers(nine.plusMinutes(30))).isFalse();
+        assertThat(index.covers(nine.plusHours(1))).isTrue();
+    }
+
+    @Test
+    void aFailedLoadLeavesTheIndexUnloaded() {
+        when(repository.findConfirmedIntervalsEndingAfter(any())).thenThrow(new IllegalStateException("down"));
+
+        index.rebuild();
+
+        assertThat(index.covers(nine)).isFalse();
+    }
+
+    private static ReservationInterval interval(Long id, Long roomId, LocalDateTime start, LocalDateTime end) {
+        return new ReservationInterval(id, roomId, start, end);
+    }
+}
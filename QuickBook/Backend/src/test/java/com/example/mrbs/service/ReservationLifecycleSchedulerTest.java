@@ -0,0 +1,62 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.ReservationInterval;
+import com.example.mrbs.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationLifecycleSchedulerTest {
+
+    private static final Long ROOM = 1L;
+
+    private final ReservationRepository repository = mock(ReservationRepository.class);
+    private ReservationIntervalIndex index;
+    private ReservationLifecycleScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findConfirmedIntervalsEndingAfter(any())).thenReturn(List.of());
+        index = new ReservationIntervalIndex(repository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.rebuild();
+        scheduler = new ReservationLifecycleScheduler(repository, index, 10);
+        ReflectionTestUtils.setField(scheduler, "batchSize", 100);
+    }
+
+    @Test
+    void dueReservationsAreCompletedAndLeaveTheIndex() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        index.applyAfterCommit(new ReservationInterval(10L, ROOM, now.minusHours(1), now.plusNanos(50_000_000)), true);
+        index.applyAfterCommit(new ReservationInterval(11L, ROOM, now.plusHours(1), now.plusHours(2)), true);
+        Thread.sleep(100);
+
+        scheduler.tick();
+
+        verify(repository).completeDue(eq(List.of(10L)), any());
+        assertThat(index.allIntervals()).extracting(ReservationInterval::getReservationId).containsExactly(11L);
+    }
+
+    @Test
+    void cancelledReservationsAreNotCompleted() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        index.applyAfterCommit(new ReservationInterval(10L, ROOM, now.minusHours(1), now.plusNanos(50_000_000)), true);
+        index.removeAfterCommit(10L, ROOM);
+        Thread.sleep(100);
+
+        scheduler.tick();
+
+        verify(repository, never()).completeDue(any(), any());
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.ReservationDto;
+import com.example.mrbs.exception.RoomNotAvailableException;
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.Reservation;
+import com.example.mrbs.model.Reservation.ReservationStatus;
+import com.example.mrbs.model.User;
+import com.example.mrbs.repository.MeetingRoomRepository;
+import com.example.mrbs.repository.ReservationRepository;
+import com.example.mrbs.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// InnoDB's default isolation, under which a transaction's first plain read fixes its snapshot
+@SpringBootTest(properties = "spring.datasource.hikari.transaction-isolation=TRANSACTION_REPEATABLE_READ")
+class ReservationServiceConcurrencyTest {
+
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private RoomBookingLocks bookingLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeetingRoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> emails = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < THREADS; i++) {
+            User user = new User();
+            user.setName("Booker " + i);
+            user.setEmail("booker" + i + "@jadeglobal.com");
+            user.setPassword("hash");
+            userRepository.save(user);
+            emails.add(user.getEmail());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        userRepository.deleteAll();
+        emails.clear();
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameSlotProduceExactlyOneReservation() throws Exception {
+        MeetingRoom room = saveRoom("Contended");
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        AtomicInteger rejected = new AtomicInteger();
+        List<Boolean> results = runConcurrently(i -> {
+            try {
+                reservationService.createReservation(emails.get(i), dto(room.getId(), start));
+                return true;
+            } catch (RoomNotAvailableException e) {
+                rejected.incrementAndGet();
+                return false;
+            }
+        });
+
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(1);
+        assertThat(rejected).hasValue(THREADS - 1);
+        assertThat(reservationRepository.findByRoomId(room.getId()))
+                .filteredOn(r -> r.getStatus() == ReservationStatus.confirmed)
+                .hasSize(1);
+    }
+
+    @Test
+    void bookingsForDifferentRoomsAllSucceed() throws Exception {
+        List<MeetingRoom> rooms = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            rooms.add(saveRoom("Parallel " + i));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        List<Boolean> results = runConcurrently(i -> {
+            reservationService.createReservation(emails.get(i), dto(rooms.get(i).getId(), start));
+            return true;
+        });
+
+        assertThat(results).hasSize(THREADS).containsOnly(true);
+        assertThat(reservationRepository.count()).isEqualTo(THREADS);
+    }
+
+    @Test
+    void roomsOnDifferentStripesDoNotBlockEachOther() throws Exception {
+        Long first = 1L;
+        Long second = 2L;
+        assertThat(bookingLocks.stripeOf(first)).isNotEqualTo(bookingLocks.stripeOf(second));
+
+        CountDownLatch firstHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                bookingLocks.lockUntilCompletion(first);
+                firstHeld.countDown();
+                await(release);
+            }));
+            assertThat(firstHeld.await(5, TimeUnit.SECONDS)).isTrue();
+
+            long started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> bookingLocks.lockUntilCompletion(second));
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(1000);
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void aBookingCommittedElsewhereWhileWaitingForTheRoomIsSeen() throws Exception {
+        MeetingRoom room = saveRoom("Shared row");
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        User elsewhere = userRepository.findByEmail(emails.get(1)).orElseThrow();
+
+        CountDownLatch booked = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Another instance holds the room row and books the slot; this node's stripes and index never see it
+            Future<?> other = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                roomRepository.findByIdForUpdate(room.getId()).orElseThrow();
+                Reservation reservation = new Reservation();
+                reservation.setUser(elsewhere);
+                reservation.setRoom(room);
+                reservation.setTitle("Booked elsewhere");
+                reservation.setStartTime(start);
+                reservation.setEndTime(start.plusMinutes(30));
+                reservationRepository.save(reservation);
+                booked.countDown();
+                await(commit);
+            }));
+            assertThat(booked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<Boolean> ours = executor.submit(() -> {
+                try {
+                    reservationService.createReservation(emails.get(0), dto(room.getId(), start));
+                    return true;
+                } catch (RoomNotAvailableException e) {
+                    return false;
+                }
+            });
+            awaitBlockedSession();
+            commit.countDown();
+            other.get(5, TimeUnit.SECONDS);
+
+            assertThat(ours.get(5, TimeUnit.SECONDS)).as("booked a slot taken while it waited").isFalse();
+            assertThat(reservationRepository.findByRoomId(room.getId())).hasSize(1);
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitBlockedSession() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.sessions WHERE blocker_id IS NOT NULL", Integer.class) == 0) {
+            assertThat(System.nanoTime()).as("a session waiting for the room row").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private List<Boolean> runConcurrently(IndexedTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int index = i;
+                Callable<Boolean> call = () -> {
+                    startGate.await();
+                    return task.run(index);
+                };
+                futures.add(executor.submit(call));
+            }
+            startGate.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private MeetingRoom saveRoom(String name) {
+        MeetingRoom room = new MeetingRoom();
+        room.setName(name);
+        room.setLocation(MeetingRoom.RoomLocation.Hyderabad);
+        room.setCapacity(8);
+        return roomRepository.save(room);
+    }
+
+    private static ReservationDto dto(Long roomId, LocalDateTime start) {
+        return new ReservationDto(roomId, "Standup", start, start.plusMinutes(30), null, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        Boolean run(int index) throws Exception;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.ReservationInterval;
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoomAvailabilityEngineTest {
+
+    private final LocalDateTime nine = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusHours(9);
+
+    private final List<ReservationInterval> stored = new ArrayList<>();
+    private final MeetingRoom booked = room(1L);
+    private final MeetingRoom free = room(2L);
+
+    private ReservationIntervalIndex index;
+    private RoomAvailabilityEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        ReservationRepository repository = mock(ReservationRepository.class);
+        when(repository.findConfirmedIntervalsEndingAfter(any())).thenAnswer(invocation -> List.copyOf(stored));
+        index = new ReservationIntervalIndex(repository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "authoritative", true);
+        engine = new RoomAvailabilityEngine(index);
+
+        stored.add(new ReservationInterval(10L, booked.getId(), nine, nine.plusHours(1)));
+        index.rebuild();
+    }
+
+    @Test
+    void coversSlotsOnceTheIndexIsLoadedEvenWhenNotAuthoritative() {
+        ReservationIntervalIndex unloaded = new ReservationIntervalIndex(mock(ReservationRepository.class));
+        ReflectionTestUtils.setField(unloaded, "enabled", true);
+        assertThat(new RoomAvailabilityEngine(unloaded).covers(nine)).isFalse();
+
+        ReflectionTestUtils.setField(index, "authoritative", false);
+
+        assertThat(engine.covers(nine)).isTrue();
+        assertThat(engine.covers(LocalDateTime.now().minusHours(1))).as("before the index's horizon").isFalse();
+    }
+
+    @Test
+    void marksRoomsBusyOnlyWhenAReservationOverlapsExactly() {
+        assertThat(available(nine.plusMinutes(30), nine.plusMinutes(45))).containsExactly(free);
+        assertThat(available(nine.minusHours(2), nine.plusDays(2))).as("across days").containsExactly(free);
+        // Shares the 10:00 slot with the booking but starts after it ends
+        assertThat(available(nine.plusHours(1).plusMinutes(5), nine.plusHours(2))).containsExactly(booked, free);
+        assertThat(available(nine.minusMinutes(30), nine.minusMinutes(1))).containsExactly(booked, free);
+    }
+
+    @Test
+    void committedBookingsReplaceTheRoomsBitmaps() {
+        LocalDateTime afternoon = nine.plusHours(5);
+        assertThat(available(afternoon, afternoon.plusHours(1))).containsExactly(booked, free);
+
+        index.applyAfterCommit(new ReservationInterval(11L, free.getId(), afternoon, afternoon.plusMinutes(30)), true);
+        assertThat(available(afternoon, afternoon.plusHours(1))).containsExactly(booked);
+
+        index.removeAfterCommit(11L, free.getId());
+        assertThat(available(afternoon, afternoon.plusHours(1))).containsExactly(booked, free);
+    }
+
+    @Test
+    void pastDaysAreEvicted() {
+        available(nine.plusHours(2), nine.plusDays(2));
+        assertThat(engine.cachedDays()).isEqualTo(6);
+
+        engine.evictBefore(nine.toLocalDate().plusDays(2));
+
+        assertThat(engine.cachedDays()).isEqualTo(2);
+        assertThat(available(nine, nine.plusHours(1))).as("rebuilt on demand").containsExactly(free);
+    }
+
+    private List<MeetingRoom> available(LocalDateTime start, LocalDateTime end) {
+        return engine.filterAvailable(List.of(booked, free), start, end);
+    }
+
+    private static MeetingRoom room(Long id) {
+        MeetingRoom room = new MeetingRoom();
+        room.setId(id);
+        room.setName("Room " + id);
+        return room;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.RoomDto;
+import com.example.mrbs.exception.ResourceNotFoundException;
+import com.example.mrbs.model.MeetingRoom;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class RoomCatalogCacheTest {
+
+    @Autowired
+    private MeetingRoomService roomService;
+
+    @Autowired
+    private RoomCatalogCache catalogCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long roomId;
+
+    @BeforeEach
+    void setUp() {
+        roomId = roomService.createRoom(new RoomDto("Catalog room", "Hyderabad", 8, null, null, null, null)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            roomService.deleteRoom(roomId);
+        } catch (ResourceNotFoundException e) {
+            // already deleted by the test
+        }
+    }
+
+    @Test
+    void repeatReadsReuseTheSerializedListing() {
+        byte[] first = roomService.findAllRoomsJson();
+        double hits = meterRegistry.counter("room.catalog.cache.requests", "level", "json", "result", "hit").count();
+
+        assertThat(roomService.findAllRoomsJson()).isSameAs(first);
+        assertThat(roomService.findByIdJson(roomId)).isSameAs(roomService.findByIdJson(roomId));
+        assertThat(meterRegistry.counter("room.catalog.cache.requests", "level", "json", "result", "hit").count())
+                .isEqualTo(hits + 2);
+        assertThat(new String(first, StandardCharsets.UTF_8)).contains("\"name\":\"Catalog room\"");
+    }
+
+    @Test
+    void writesInvalidateWithoutChangingCachedRooms() {
+        MeetingRoom cached = roomService.findById(roomId);
+        byte[] listing = roomService.findAllRoomsJson();
+
+        roomService.updateRoom(roomId, new RoomDto("Renamed room", "Hyderabad", 8, null, null, null, null));
+
+        assertThat(cached.getName()).isEqualTo("Catalog room");
+        assertThat(roomService.findById(roomId).getName()).isEqualTo("Renamed room");
+        assertThat(new String(roomService.findAllRoomsJson(), StandardCharsets.UTF_8))
+                .contains("\"name\":\"Renamed room\"")
+                .isNotEqualTo(new String(listing, StandardCharsets.UTF_8));
+
+        roomService.deleteRoom(roomId);
+        assertThatThrownBy(() -> roomService.findById(roomId)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> roomService.findByIdJson(roomId)).isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.dto.ReservationInterval;
+import com.example.mrbs.dto.SlotCandidate;
+import com.example.mrbs.model.MeetingRoom;
+import com.example.mrbs.model.MeetingRoom.RoomAvailability;
+import com.example.mrbs.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlotFinderServiceTest {
+
+    private final LocalDateTime nine = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).plusHours(9);
+
+    private final List<MeetingRoom> rooms = new ArrayList<>();
+    private final List<ReservationInterval> busy = new ArrayList<>();
+    private final SlotFinderService finder = new SlotFinderService();
+
+    private long nextReservationId = 1;
+
+    @BeforeEach
+    void setUp() {
+        MeetingRoomService roomService = mock(MeetingRoomService.class);
+        when(roomService.findAllRooms()).thenReturn(rooms);
+        ReservationRepository repository = mock(ReservationRepository.class);
+        // Same order as the query: by room, then start
+        when(repository.findConfirmedIntervalsForRoomsBetween(anyList(), any(), any())).thenAnswer(invocation -> busy.stream()
+                .sorted(Comparator.comparing(ReservationInterval::getRoomId).thenComparing(ReservationInterval::getStartTime))
+                .toList());
+        ReflectionTestUtils.setField(finder, "roomService", roomService);
+        ReflectionTestUtils.setField(finder, "reservationRepository", repository);
+    }
+
+    @Test
+    void returnsTheEarliestSlotsAcrossRooms() {
+        room(1L, 4);
+        room(2L, 4);
+        book(1L, nine, nine.plusHours(1));
+        book(2L, nine, nine.plusMinutes(20));
+
+        assertThat(find(30, nine, nine.plusHours(4), 1, 2))
+                .extracting(SlotCandidate::getRoomId, SlotCandidate::getStartTime)
+                // Starting right as a reservation ends counts as touching it, so the search resumes one step later
+                .containsExactly(tuple(2L, nine.plusMinutes(30)), tuple(1L, nine.plusMinutes(75)));
+    }
+
+    @Test
+    void gapsMustFitTheWholeMeetingWithoutTouchingTheNextReservation() {
+        room(1L, 4);
+        book(1L, nine, nine.plusMinutes(30));
+        book(1L, nine.plusMinutes(90), nine.plusHours(2));
+
+        // 09:45 to 10:15 ends before the 10:30 booking
+        assertThat(find(30, nine, nine.plusHours(4), 1, 1))
+                .extracting(SlotCandidate::getStartTime).containsExactly(nine.plusMinutes(45));
+        // 09:45 to 10:30 would touch it, so the first fit is after it
+        assertThat(find(45, nine, nine.plusHours(4), 1, 1))
+                .extracting(SlotCandidate::getStartTime).containsExactly(nine.plusMinutes(135));
+    }
+
+    @Test
+    void reportsOneSlotPerGapUpToTheLimitAndWithinTheWindow() {
+        room(1L, 4);
+        book(1L, nine.plusHours(1), nine.plusHours(2));
+        book(1L, nine.plusHours(3), nine.plusHours(4));
+
+        assertThat(find(30, nine, nine.plusHours(6), 1, 5))
+                .extracting(SlotCandidate::getStartTime)
+                .containsExactly(nine, nine.plusMinutes(135), nine.plusMinutes(255));
+        assertThat(find(30, nine, nine.plusHours(6), 1, 2)).hasSize(2);
+        assertThat(find(30, nine.plusHours(1), nine.plusMinutes(150), 1, 5)).as("gap ends with the window").isEmpty();
+    }
+
+    @Test
+    void skipsRoomsTooSmallOrOutOfService() {
+        room(1L, 2);
+        room(2L, 8).setAvailability(RoomAvailability.Under_Maintenance);
+        room(3L, 8);
+
+        assertThat(find(30, nine, nine.plusHours(1), 6, 5))
+                .extracting(SlotCandidate::getRoomId).containsExactly(3L);
+    }
+
+    @Test
+    void alignsStartsToTheSlotGrid() {
+        room(1L, 4);
+
+        assertThat(find(30, nine.plusMinutes(7), nine.plusHours(1), 1, 1))
+                .extracting(SlotCandidate::getStartTime).containsExactly(nine.plusMinutes(15));
+        assertThat(SlotFinderService.alignUp(nine)).isEqualTo(nine);
+        assertThat(SlotFinderService.alignAfter(nine)).isEqualTo(nine.plusMinutes(15));
+    }
+
+    @Test
+    void rejectsWindowsLongerThanAMonth() {
+        assertThatThrownBy(() -> find(30, nine, nine.plusDays(32), 1, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> find(30, nine, nine, 1, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<SlotCandidate> find(int minutes, LocalDateTime from, LocalDateTime to, int minCapacity, int limit) {
+        return finder.findEarliestSlots(minutes, from, to, minCapacity, null, limit);
+    }
+
+    private MeetingRoom room(Long id, int capacity) {
+        MeetingRoom room = new MeetingRoom();
+        room.setId(id);
+        room.setName("Room " + id);
+        room.setCapacity(capacity);
+        rooms.add(room);
+        return room;
+    }
+
+    private void book(Long roomId, LocalDateTime start, LocalDateTime end) {
+        busy.add(new ReservationInterval(nextReservationId++, roomId, start, end));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.mrbs.service;
+
+import com.example.mrbs.model.User.UserRole;
+import com.example.mrbs.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserStatusCacheTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final UserStatusCache cache = new UserStatusCache(repository, new SimpleMeterRegistry(), Duration.ofMinutes(1), 2);
+
+    @Test
+    void theLeastRecentlyUsedUserIsDroppedWhenFull() {
+        when(repository.findRoleByEmail(anyString())).thenReturn(Optional.of(UserRole.employee));
+
+        cache.currentRole("a@jadeglobal.com");
+        cache.currentRole("b@jadeglobal.com");
+        cache.currentRole("a@jadeglobal.com");
+        cache.currentRole("c@jadeglobal.com");
+        cache.currentRole("a@jadeglobal.com");
+        cache.currentRole("b@jadeglobal.com");
+
+        verify(repository, times(1)).findRoleByEmail("a@jadeglobal.com");
+        verify(repository, times(2)).findRoleByEmail("b@jadeglobal.com");
+    }
+
+    @Test
+    void aRoleReadBeforeAnEvictionIsNotCached() {
+        when(repository.findRoleByEmail("a@jadeglobal.com")).thenAnswer(invocation -> {
+            // The role changes and is evicted while this read is in flight
+            cache.evictAfterCommit("a@jadeglobal.com");
+            return Optional.of(UserRole.employee);
+        }).thenReturn(Optional.of(UserRole.admin));
+
+        assertThat(cache.currentRole("a@jadeglobal.com")).contains(UserRole.employee);
+        assertThat(cache.currentRole("a@jadeglobal.com")).contains(UserRole.admin);
+        assertThat(cache.currentRole("a@jadeglobal.com")).contains(UserRole.admin);
+
+        verify(repository, times(2)).findRoleByEmail("a@jadeglobal.com");
+    }
+}
@@ -0,0 +1,58 @@
+-- A database as Hibernate's ddl-auto=update left it before migrations existed
+CREATE TABLE users (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    name          VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    role          VARCHAR(20),
+    created_at    DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE meeting_rooms (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    name         VARCHAR(255) NOT NULL,
+    location     VARCHAR(255) NOT NULL,
+    capacity     INT          NOT NULL,
+    availability VARCHAR(255),
+    description  TEXT,
+    imageurl     TEXT,
+    created_at   DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_meeting_rooms_name UNIQUE (name)
+);
+
+CREATE TABLE reservations (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT       NOT NULL,
+    room_id    BIGINT       NOT NULL,
+    title      VARCHAR(255) NOT NULL,
+    start_time DATETIME(6)  NOT NULL,
+    end_time   DATETIME(6)  NOT NULL,
+    amenities  TEXT,
+    status     VARCHAR(255),
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reservations_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_reservations_room FOREIGN KEY (room_id) REFERENCES meeting_rooms (id)
+);
+
+CREATE TABLE feedbacks (
+    id             BIGINT        NOT NULL AUTO_INCREMENT,
+    comment        VARCHAR(1000) NOT NULL,
+    rating         INT           NOT NULL,
+    user_id        BIGINT        NOT NULL,
+    reservation_id BIGINT        NOT NULL,
+    created_at     DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_feedbacks_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_feedbacks_reservation FOREIGN KEY (reservation_id) REFERENCES reservations (id)
+);
+
+INSERT INTO users (name, email, password_hash, role, created_at)
+VALUES ('Existing', 'existing@jadeglobal.com', 'hash', 'employee', LOCALTIMESTAMP);
+INSERT INTO meeting_rooms (name, location, capacity, availability, created_at)
+VALUES ('Existing room', 'Hyderabad', 6, 'Available', LOCALTIMESTAMP);
+INSERT INTO reservations (user_id, room_id, title, start_time, end_time, status, created_at)
+VALUES (1, 1, 'Existing booking', TIMESTAMP '2030-01-01 09:00:00', TIMESTAMP '2030-01-01 10:00:00', 'confirmed', LOCALTIMESTAMP);
@@ -10,9 +10,22 @@ api.interceptors.request.use((config) => {
     if (token) {
         config.headers.Authorization = `Bearer ${token}`;
     }
+    // Keeps our reads on the primary database for a few seconds after we changed something
+    const pin = sessionStorage.getItem('readYourWrites');
+    if (pin && Number(pin) > Date.now()) {
+        config.headers['X-Read-Your-Writes'] = pin;
+    }
     return config;
 });
 
+api.interceptors.response.use((response) => {
+    const pin = response.headers['x-read-your-writes'];
+    if (pin) {
+        sessionStorage.setItem('readYourWrites', pin);
+    }
+    return response;
+});
+
 export const login = (email, password) => api.post('/auth/login', { email, password });
 export const getUsers = () => api.get('/admin/users');
 export const updateUserRole = (userId, role) => api.put(`/admin/users/${userId}/role?role=${role}`);
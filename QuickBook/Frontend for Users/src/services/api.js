@@ -15,12 +15,23 @@ api.interceptors.request.use(config => {
     config.headers.Authorization = `Bearer ${token}`;
   }
   config.headers['Content-Type'] = 'application/json';
+  // Keeps our reads on the primary database for a few seconds after we changed something
+  const pin = sessionStorage.getItem('readYourWrites');
+  if (pin && Number(pin) > Date.now()) {
+    config.headers['X-Read-Your-Writes'] = pin;
+  }
   return config;
 });
 
 // Add error interceptor
 api.interceptors.response.use(
-  (response) => response,
+  (response) => {
+    const pin = response.headers['x-read-your-writes'];
+    if (pin) {
+      sessionStorage.setItem('readYourWrites', pin);
+    }
+    return response;
+  },
   (error) => {
     if (error.code === 'ECONNABORTED') {
       throw new Error('Request timeout - Server is not responding');